@@ -0,0 +1,304 @@
+package cpsc2150.extendedOthello.ai;
+
+import cpsc2150.extendedOthello.metrics.EngineMetrics;
+import cpsc2150.extendedOthello.models.Position;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * The `ComputerPlayer` class chooses moves for one side of a game within a time budget. The budgets
+ * are targets rather than hard limits: each move is given at most the per-move budget, and the
+ * thinking time left for the game is spread over the moves that are left, but every move gets at
+ * least 10 ms and the first iteration of a search always completes, so a move can run slightly over
+ * its share. Once the game budget is spent, moves are only searched one ply deep, which keeps the
+ * overrun of the game budget to a few milliseconds per move.
+ *
+ * While the opponent is thinking, the computer ponders: it predicts the opponent's reply (the
+ * second move of its last principal variation) and searches the position after that reply on a
+ * background thread. When the opponent's actual move arrives the ponder search is stopped at once.
+ * If the prediction was right and the ponder search looked at least as far ahead as the previous
+ * search did (two plies less deep, since it starts two plies later), its move is played at once;
+ * otherwise the normal search runs, starting from everything the ponder search left in the shared
+ * transposition table.
+ *
+ * All timing is read from a clock that is `System.nanoTime()` unless another one is given, so
+ * tests can check the budgets without depending on how fast the machine is.
+ *
+ * @invariant the ponder thread is only searching between `startPondering` and the next `chooseMove`
+ *            or `stopPondering`
+ */
+public class ComputerPlayer {
+
+    /** The default per-move budget in milliseconds. */
+    public static final long DEFAULT_MOVE_MILLIS = 2000;
+
+    /** The default per-game budget in milliseconds. */
+    public static final long DEFAULT_GAME_MILLIS = 60000;
+
+    private static final int TABLE_BITS = 20;
+    private static final int MAX_DEPTH = 60;
+    private static final long MIN_MOVE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long PREDICT_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long PONDER_LIMIT_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final char side;
+    private final long moveBudgetNanos;
+    private long gameBudgetNanos;
+    private final Search search;
+    private final LongSupplier clock;
+    private final ExecutorService ponderThread = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "othello-ponder");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private Future<Pondered> ponder;
+    private Search.Result lastResult;
+    private boolean lastWasPonderHit;
+    private long lastBudgetNanos;
+
+    /** What a ponder search predicted and found. */
+    private static final class Pondered {
+        final Position predicted;
+        final Search.Result result;
+
+        Pondered(Position predicted, Search.Result result) {
+            this.predicted = predicted;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Constructs a computer player.
+     *
+     * @param side The player the computer plays ('X' or 'O').
+     * @param moveMillis The most time any one move may take, in milliseconds.
+     * @param gameMillis The most thinking time for the whole game, in milliseconds.
+     * @pre moveMillis > 0 AND gameMillis > 0
+     */
+    public ComputerPlayer(char side, long moveMillis, long gameMillis) {
+        this(side, moveMillis, gameMillis, null);
+    }
+
+    /**
+     * Constructs a computer player that keeps its search results in a persistent cache, so
+     * positions searched in earlier games are answered from the cache.
+     *
+     * @param side The player the computer plays ('X' or 'O').
+     * @param moveMillis The most time any one move may take, in milliseconds.
+     * @param gameMillis The most thinking time for the whole game, in milliseconds.
+     * @param cache The persistent cache, or null for none. The caller closes it.
+     * @pre moveMillis > 0 AND gameMillis > 0
+     */
+    public ComputerPlayer(char side, long moveMillis, long gameMillis, PositionCache cache) {
+        this(side, moveMillis, gameMillis, cache, System::nanoTime);
+    }
+
+    /**
+     * Constructs a computer player that measures its thinking time with the given clock.
+     *
+     * @param side The player the computer plays ('X' or 'O').
+     * @param moveMillis The most time any one move may take, in milliseconds.
+     * @param gameMillis The most thinking time for the whole game, in milliseconds.
+     * @param cache The persistent cache, or null for none. The caller closes it.
+     * @param clock The current time in nanoseconds. It is also read by the ponder thread.
+     * @pre moveMillis > 0 AND gameMillis > 0
+     */
+    public ComputerPlayer(char side, long moveMillis, long gameMillis, PositionCache cache, LongSupplier clock) {
+        this.side = side;
+        this.moveBudgetNanos = TimeUnit.MILLISECONDS.toNanos(moveMillis);
+        this.gameBudgetNanos = TimeUnit.MILLISECONDS.toNanos(gameMillis);
+        this.search = new Search(TABLE_BITS, cache, clock);
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the side the computer plays.
+     *
+     * @return 'X' or 'O'.
+     */
+    public char getSide() {
+        return side;
+    }
+
+    /**
+     * Chooses a move, using the result of pondering if the opponent played the predicted reply.
+     * Any ponder search still running is stopped first.
+     *
+     * @param pos The position to move in.
+     * @return the chosen square (0-63), or -1 if the computer has no legal move.
+     * @throws IllegalStateException if the ponder search failed; its exception is the cause.
+     * @pre pos.getToMove() == getSide() AND !pos.isGameOver()
+     */
+    public int chooseMove(Position pos) {
+        Search.Result pondered = finishPondering(pos);
+        lastWasPonderHit = pondered != null;
+        if (pos.legalMoves() == 0) {
+            return -1;
+        }
+        int empties = 64 - Long.bitCount(pos.getPlayerDiscs() | pos.getOpponentDiscs());
+        int wanted = (lastResult == null) ? 1 : Math.max(1, Math.min(lastResult.depth - 2, empties));
+        if (pondered != null && pondered.move >= 0 && pondered.depth >= wanted) {
+            lastResult = pondered;
+            return pondered.move;
+        }
+
+        long start = clock.getAsLong();
+        lastBudgetNanos = budgetFor(empties);
+        int maxDepth = (gameBudgetNanos > 0) ? MAX_DEPTH : 1;
+        Search.Result result = search.search(pos.getPlayerDiscs(), pos.getOpponentDiscs(),
+                start + lastBudgetNanos, maxDepth);
+        gameBudgetNanos -= clock.getAsLong() - start;
+        lastResult = result;
+        return result.move;
+    }
+
+    /**
+     * Starts pondering on the opponent's time. Does nothing if the opponent has no legal move.
+     *
+     * @param pos The position after the computer's move, with the opponent to move.
+     * @throws IllegalStateException if the previous ponder search failed; its exception is the cause.
+     * @pre pos.getToMove() != getSide()
+     * @post the ponder thread is searching the position after the predicted reply, if there is one
+     */
+    public void startPondering(Position pos) {
+        stopPondering();
+        if (pos.legalMoves() == 0) {
+            return;
+        }
+        int reply = (lastResult == null) ? -1 : lastResult.expectedReply();
+        if (reply >= 0 && (pos.legalMoves() & (1L << reply)) == 0) {
+            reply = -1;
+        }
+        int known = reply;
+        search.clearStop();
+        ponder = ponderThread.submit(() -> {
+            int predictedReply = known;
+            if (predictedReply < 0) {
+                predictedReply = search.search(pos.getPlayerDiscs(), pos.getOpponentDiscs(),
+                        clock.getAsLong() + PREDICT_NANOS, MAX_DEPTH).move;
+            }
+            Position predicted = pos.play(predictedReply);
+            if (predicted.legalMoves() == 0) {
+                return null;
+            }
+            Search.Result result = search.search(predicted.getPlayerDiscs(), predicted.getOpponentDiscs(),
+                    clock.getAsLong() + PONDER_LIMIT_NANOS, MAX_DEPTH);
+            return new Pondered(predicted, result);
+        });
+    }
+
+    /**
+     * Stops any ponder search and waits for it to finish. If the calling thread is interrupted, it
+     * still waits, and returns with the interrupt status set.
+     *
+     * @throws IllegalStateException if the ponder search failed; its exception is the cause.
+     * @post the ponder thread is idle
+     */
+    public void stopPondering() {
+        finishPondering(null);
+    }
+
+    /**
+     * Stops pondering and releases the ponder thread. The player must not be used afterwards.
+     */
+    public void shutdown() {
+        try {
+            stopPondering();
+        } finally {
+            ponderThread.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns whether the opponent played the pondered reply before the last move.
+     *
+     * @return true if the last `chooseMove` was a ponder hit.
+     */
+    public boolean wasPonderHit() {
+        return lastWasPonderHit;
+    }
+
+    /**
+     * Returns the search result behind the last move.
+     *
+     * @return the last result, or null if no move has been chosen yet.
+     */
+    public Search.Result getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Returns the time the last searched move was allowed to take. A move played straight from
+     * pondering is not searched and leaves this unchanged.
+     *
+     * @return the budget given to the last search in milliseconds, or 0 if nothing was searched yet.
+     */
+    public long getLastBudgetMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastBudgetNanos);
+    }
+
+    /**
+     * Returns the thinking time left for the rest of the game.
+     *
+     * @return the remaining game budget in milliseconds.
+     */
+    public long getRemainingGameMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(0, gameBudgetNanos));
+    }
+
+    /**
+     * Splits the remaining game budget evenly over the computer's remaining moves, capped by the
+     * per-move budget and never below `MIN_MOVE_NANOS`, even when the game budget is spent.
+     */
+    private long budgetFor(int empties) {
+        long movesLeft = Math.max(1, (empties + 1) / 2);
+        return Math.max(MIN_MOVE_NANOS, Math.min(moveBudgetNanos, gameBudgetNanos / movesLeft));
+    }
+
+    /**
+     * Stops the ponder search, waits for it to finish even if this thread is interrupted, and returns
+     * its result if it searched `actual`.
+     *
+     * @throws IllegalStateException if the ponder search failed; its exception is the cause.
+     */
+    private Search.Result finishPondering(Position actual) {
+        if (ponder == null) {
+            return null;
+        }
+        search.stop();
+        Pondered pondered = null;
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    pondered = ponder.get();
+                    break;
+                } catch (InterruptedException e) {
+                    // The search is shared, so it must be idle before it is used again; the stop
+                    // request ends it quickly, and the interrupt is restored afterwards
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ponder search failed", e.getCause());
+        } finally {
+            ponder = null;
+            search.clearStop();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (actual == null || pondered == null) {
+            return null;
+        }
+        boolean hit = pondered.predicted.equals(actual);
+        EngineMetrics.ponderResult(hit);
+        return hit ? pondered.result : null;
+    }
+}
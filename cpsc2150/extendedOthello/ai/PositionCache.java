@@ -0,0 +1,270 @@
+package cpsc2150.extendedOthello.ai;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * The `PositionCache` class is a fixed-size table of search results (score, depth, bound and best
+ * move) keyed by `Position.hash64`, kept in a memory-mapped file so it survives between runs.
+ * Anything stored is visible to every thread at once and is written back to the file by the
+ * operating system.
+ *
+ * The file starts with a 64-byte header holding a magic number, the format version, the table
+ * size, a CRC32 of all slots and a clean-shutdown flag. Opening a cache clears the flag, and `close`
+ * writes the checksum and sets it again. If the header does not match, the checksum is wrong, or the
+ * flag shows the last process did not close the cache, the file is rebuilt empty rather than trusted.
+ *
+ * Slots hold two longs: the data and the key XORed with the data. Readers and writers never lock;
+ * a reader that sees half of a concurrent write gets a key that does not match and treats the slot
+ * as a miss. Each key may live in either slot of a two-slot bucket; a store replaces the slot that
+ * already holds its key, else an empty slot, else the shallower of the two entries.
+ *
+ * Only one process may have a cache file open at a time. `open` takes an exclusive lock on the
+ * file before reading its header, and fails if another process or another open `PositionCache`
+ * holds it, so a second user can never rebuild a file that is mapped elsewhere.
+ */
+public final class PositionCache implements Closeable {
+
+    /** The value `probe` returns when the key is not cached. */
+    public static final long MISS = 0;
+
+    /** The bound of an entry whose score is exact. */
+    public static final int EXACT = 0;
+
+    /** The bound of an entry whose score is at least the stored value. */
+    public static final int LOWER = 1;
+
+    /** The bound of an entry whose score is at most the stored value. */
+    public static final int UPPER = 2;
+
+    /** The default log2 of the number of slots: 2^20 slots, a 16 MB file. */
+    public static final int DEFAULT_SLOT_BITS = 20;
+
+    /** Increase whenever the entry format or the meaning of stored scores changes. */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final long MAGIC = 0x4F5448454C4C4F43L; // "OTHELLOC"
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_BYTES = 16;
+    private static final int OFFSET_MAGIC = 0, OFFSET_VERSION = 8, OFFSET_SLOT_BITS = 12,
+            OFFSET_CHECKSUM = 16, OFFSET_CLEAN = 24;
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slotBits;
+    private final long bucketMask;
+    private final boolean rebuilt;
+
+    private PositionCache(FileChannel channel, MappedByteBuffer buffer, int slotBits, boolean rebuilt) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.slotBits = slotBits;
+        this.bucketMask = (1L << (slotBits - 1)) - 1;
+        this.rebuilt = rebuilt;
+    }
+
+    /**
+     * Opens a cache file, creating or rebuilding it if it is missing, of a different size or format,
+     * corrupted, or was not closed cleanly.
+     *
+     * @param file The cache file.
+     * @param slotBits The log2 of the number of slots; the file takes 16 bytes per slot.
+     * @return the open cache.
+     * @throws IOException if the file cannot be created, locked or mapped, including when another
+     *         process or another open cache is using it.
+     * @throws IllegalArgumentException if `slotBits` is not between 1 and 26.
+     */
+    public static PositionCache open(Path file, int slotBits) throws IOException {
+        if (slotBits < 1 || slotBits > 26) {
+            throw new IllegalArgumentException("slotBits must be between 1 and 26: " + slotBits);
+        }
+        long size = HEADER_BYTES + ((long) SLOT_BYTES << slotBits);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                throw new IOException("Cache file is in use: " + file);
+            }
+            // The lock is released when the channel is closed
+            boolean sameSize = channel.size() == size;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            boolean trusted = sameSize && isValid(buffer, slotBits);
+            if (!trusted) {
+                // Start over from an all-zero file rather than clearing it slot by slot.
+                channel.truncate(0);
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putLong(OFFSET_MAGIC, MAGIC);
+                buffer.putInt(OFFSET_VERSION, FORMAT_VERSION);
+                buffer.putInt(OFFSET_SLOT_BITS, slotBits);
+            }
+            buffer.putInt(OFFSET_CLEAN, 0);
+            buffer.force();
+            return new PositionCache(channel, buffer, slotBits, !trusted);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static boolean isValid(MappedByteBuffer buffer, int slotBits) {
+        return buffer.getLong(OFFSET_MAGIC) == MAGIC
+                && buffer.getInt(OFFSET_VERSION) == FORMAT_VERSION
+                && buffer.getInt(OFFSET_SLOT_BITS) == slotBits
+                && buffer.getInt(OFFSET_CLEAN) == 1
+                && buffer.getLong(OFFSET_CHECKSUM) == checksum(buffer);
+    }
+
+    private static long checksum(MappedByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(HEADER_BYTES));
+        return crc.getValue();
+    }
+
+    /**
+     * Tells whether the file was created or rebuilt empty by `open` instead of reused.
+     *
+     * @return true if no earlier entries were kept.
+     */
+    public boolean wasRebuilt() {
+        return rebuilt;
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return 2^slotBits.
+     */
+    public long capacity() {
+        return 1L << slotBits;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key The position's `hash64`.
+     * @return the stored entry (see `pack`), or `MISS`.
+     */
+    public long probe(long key) {
+        long offset = slotOffset(key);
+        for (int i = 0; i < 2; i++, offset += SLOT_BYTES) {
+            long data = (long) LONGS.getOpaque(buffer, (int) offset + 8);
+            long check = (long) LONGS.getOpaque(buffer, (int) offset);
+            if (data != MISS && (check ^ data) == key) {
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores an entry for a position, replacing an older entry for the same key, an empty slot, or
+     * the shallower entry of its bucket.
+     *
+     * @param key The position's `hash64`.
+     * @param data The entry, made with `pack`.
+     * @pre depthOf(data) > 0
+     */
+    public void store(long key, long data) {
+        long first = slotOffset(key);
+        long second = first + SLOT_BYTES;
+        long firstData = (long) LONGS.getOpaque(buffer, (int) first + 8);
+        long secondData = (long) LONGS.getOpaque(buffer, (int) second + 8);
+        long target;
+        if (((long) LONGS.getOpaque(buffer, (int) first) ^ firstData) == key) {
+            target = first;
+        } else if (((long) LONGS.getOpaque(buffer, (int) second) ^ secondData) == key) {
+            target = second;
+        } else if (firstData == MISS) {
+            target = first;
+        } else if (secondData == MISS) {
+            target = second;
+        } else {
+            target = (depthOf(secondData) < depthOf(firstData)) ? second : first;
+        }
+        LONGS.setOpaque(buffer, (int) target + 8, data);
+        LONGS.setOpaque(buffer, (int) target, key ^ data);
+    }
+
+    /**
+     * Writes the checksum, marks the file as cleanly closed and closes it. The cache must not be
+     * used afterwards.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        buffer.putLong(OFFSET_CHECKSUM, checksum(buffer));
+        buffer.putInt(OFFSET_CLEAN, 1);
+        buffer.force();
+        channel.close();
+    }
+
+    private long slotOffset(long key) {
+        return HEADER_BYTES + (key & bucketMask) * 2 * SLOT_BYTES;
+    }
+
+    /**
+     * Packs a search result into one long.
+     *
+     * @param score The score.
+     * @param depth The depth it was searched to, 1 to 255.
+     * @param bound `EXACT`, `LOWER` or `UPPER`.
+     * @param move The best move (0-63), or 64 for none.
+     * @return the packed entry, never `MISS`.
+     */
+    public static long pack(int score, int depth, int bound, int move) {
+        return (score & 0xFFFFFFFFL) | ((long) depth << 32) | ((long) bound << 40) | ((long) move << 42);
+    }
+
+    /**
+     * @param data A packed entry.
+     * @return its score.
+     */
+    public static int scoreOf(long data) {
+        return (int) data;
+    }
+
+    /**
+     * @param data A packed entry.
+     * @return its depth.
+     */
+    public static int depthOf(long data) {
+        return (int) (data >>> 32) & 0xFF;
+    }
+
+    /**
+     * @param data A packed entry.
+     * @return its bound.
+     */
+    public static int boundOf(long data) {
+        return (int) (data >>> 40) & 3;
+    }
+
+    /**
+     * @param data A packed entry.
+     * @return its best move, or 64 for none.
+     */
+    public static int moveOf(long data) {
+        return (int) (data >>> 42) & 0x7F;
+    }
+}
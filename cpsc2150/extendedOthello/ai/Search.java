@@ -0,0 +1,505 @@
+package cpsc2150.extendedOthello.ai;
+
+import cpsc2150.extendedOthello.metrics.EngineMetrics;
+import cpsc2150.extendedOthello.models.Bitboards;
+import cpsc2150.extendedOthello.models.Position;
+import cpsc2150.extendedOthello.models.Stability;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * The `Search` class finds the best move for a position with an iterative-deepening alpha-beta
+ * (negamax) search on bitboards. Positions are given as the discs of the player to move and of the
+ * opponent, as in `Bitboards`.
+ *
+ * Results of searched positions are kept in a transposition table that survives between calls,
+ * so a search that repeats earlier work (for example after pondering) finishes quickly. A search
+ * may also be given a `PositionCache`: results of deeper nodes are then kept on disk too, and a
+ * later run that meets the same positions starts from them instead of searching again.
+ * Once an iteration is deep enough to reach the end of the game and few empty squares are left,
+ * the search switches to an exact solver that scores final disc differences and uses `Stability`
+ * bounds to cut off lines that cannot beat the best one found.
+ *
+ * A search stops at its deadline or when `stop` is called from another thread, and then returns
+ * the result of the deepest iteration it completed. Deadlines and timings are read from
+ * `System.nanoTime()` unless another clock is given, which lets tests make the time a search takes
+ * deterministic. A `Search` is used by one thread at a time.
+ */
+public class Search {
+
+    /** The score of a won-by-one final position; a final score is the disc difference times this. */
+    public static final int FINAL_SCALE = 1000;
+
+    private static final int INF = 1_000_000;
+    private static final int ENDGAME_EMPTIES = 10;
+    private static final int NO_MOVE = 64;
+    private static final int EXACT = PositionCache.EXACT, LOWER = PositionCache.LOWER, UPPER = PositionCache.UPPER;
+
+    /** Nodes searched at least this deep are also looked up in and stored to the persistent cache. */
+    private static final int CACHE_MIN_DEPTH = 3;
+
+    private static final long CORNERS = 0x8100000000000081L;
+    private static final long X_SQUARES = 0x0042000000004200L;
+    private static final long EDGES = 0xFF818181818181FFL & ~CORNERS & ~0x4281000000008142L;
+
+    /** Move-ordering classes, tried in this order: corners, safe edges, the rest, then squares next to corners. */
+    private static final long[] ORDER = {
+            CORNERS,
+            EDGES,
+            ~(CORNERS | EDGES | 0x42C300000000C342L),
+            0x42C300000000C342L
+    };
+
+    private static final SearchAborted ABORTED = new SearchAborted();
+
+    private final long[] ttKeys;
+    private final long[] ttData;
+    private final int ttMask;
+    private final PositionCache cache;
+    private final LongSupplier clock;
+
+    private volatile boolean stopRequested;
+    private long deadline;
+    private boolean canAbort;
+    private int rootBest;
+
+    private long nodes;
+    private long cutoffs;
+    private long probes;
+    private long hits;
+
+    /**
+     * The outcome of a search.
+     */
+    public static final class Result {
+
+        /** The best move found (a square 0-63), or -1 if the player has no legal move. */
+        public final int move;
+
+        /** The score of the best move from the searching player's view. */
+        public final int score;
+
+        /** The deepest iteration that was completed. */
+        public final int depth;
+
+        /** The expected line of play, starting with `move`. */
+        public final int[] pv;
+
+        /** The number of positions visited. */
+        public final long nodes;
+
+        Result(int move, int score, int depth, int[] pv, long nodes) {
+            this.move = move;
+            this.score = score;
+            this.depth = depth;
+            this.pv = pv;
+            this.nodes = nodes;
+        }
+
+        /**
+         * Returns the expected reply to `move`.
+         *
+         * @return the second move of the expected line, or -1 if there is none.
+         */
+        public int expectedReply() {
+            return (pv.length > 1) ? pv[1] : -1;
+        }
+    }
+
+    /** Thrown to unwind the search when it is stopped. */
+    private static final class SearchAborted extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SearchAborted() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Constructs a search with a transposition table of 2^`tableBits` entries.
+     *
+     * @param tableBits The log2 of the table size.
+     * @pre 0 < tableBits <= 26
+     */
+    public Search(int tableBits) {
+        this(tableBits, null);
+    }
+
+    /**
+     * Constructs a search with a transposition table of 2^`tableBits` entries that also reads and
+     * writes a persistent cache. The cache may be shared by searches on other threads.
+     *
+     * @param tableBits The log2 of the table size.
+     * @param cache The persistent cache, or null for none.
+     * @pre 0 < tableBits <= 26
+     */
+    public Search(int tableBits, PositionCache cache) {
+        this(tableBits, cache, System::nanoTime);
+    }
+
+    /**
+     * Constructs a search that reads the time from the given clock instead of `System.nanoTime()`.
+     *
+     * @param tableBits The log2 of the table size.
+     * @param cache The persistent cache, or null for none.
+     * @param clock The current time in nanoseconds; deadlines passed to `search` are on this clock.
+     *              It may be read from any thread that runs a search.
+     * @pre 0 < tableBits <= 26
+     */
+    public Search(int tableBits, PositionCache cache, LongSupplier clock) {
+        ttKeys = new long[1 << tableBits];
+        ttData = new long[1 << tableBits];
+        ttMask = (1 << tableBits) - 1;
+        this.cache = cache;
+        this.clock = clock;
+    }
+
+    /**
+     * Searches a position until the deadline passes, `maxDepth` is reached, the position is solved
+     * exactly, or `stop` is called. The first iteration always completes, so a legal move is
+     * returned whenever one exists.
+     *
+     * @param player The discs of the player to move.
+     * @param opponent The discs of the other player.
+     * @param deadlineNanos The clock value (by default `System.nanoTime()`) at which to stop.
+     * @param maxDepth The deepest iteration to search.
+     * @return the result of the deepest completed iteration.
+     */
+    public Result search(long player, long opponent, long deadlineNanos, int maxDepth) {
+        long start = clock.getAsLong();
+        deadline = deadlineNanos;
+        canAbort = false;
+        nodes = 0;
+        cutoffs = 0;
+        probes = 0;
+        hits = 0;
+
+        Result best = new Result(-1, 0, 0, new int[0], 0);
+        if (Bitboards.legalMoves(player, opponent) == 0) {
+            return best;
+        }
+        int empties = 64 - Long.bitCount(player | opponent);
+        if (cache != null) {
+            // A position already searched deep enough in an earlier run needs no search at all.
+            long data = cache.probe(Position.hash64(player, opponent));
+            if (data != PositionCache.MISS && PositionCache.boundOf(data) == EXACT
+                    && PositionCache.depthOf(data) >= Math.min(maxDepth, empties)
+                    && PositionCache.moveOf(data) != NO_MOVE) {
+                int move = PositionCache.moveOf(data);
+                int depth = PositionCache.depthOf(data);
+                // The expected line is rebuilt from the moves stored for the positions along it
+                int[] pv = principalVariation(player, opponent, move, Math.min(depth, empties));
+                EngineMetrics.searchCompleted(0, 0, 1, 1, clock.getAsLong() - start);
+                return new Result(move, PositionCache.scoreOf(data), depth, pv, 0);
+            }
+        }
+        try {
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                int score = negamax(player, opponent, depth, -INF, INF, 0);
+                best = new Result(rootBest, score, depth, principalVariation(player, opponent, rootBest, depth), nodes);
+                canAbort = true;
+                if (depth >= empties || stopRequested) {
+                    break;
+                }
+                // The next iteration takes several times as long as this one, so do not start it late.
+                long now = clock.getAsLong();
+                if (now - deadline >= 0 || now - start > (deadline - start) / 2) {
+                    break;
+                }
+            }
+        } catch (SearchAborted e) {
+            // keep the deepest completed iteration
+        }
+        EngineMetrics.searchCompleted(nodes, cutoffs, probes, hits, clock.getAsLong() - start);
+        return new Result(best.move, best.score, best.depth, best.pv, nodes);
+    }
+
+    /**
+     * Scores the best moves of a position to a fixed depth (multi-PV analysis). Each returned score
+     * is a full value rather than a bound, from a search at least `depth` deep; the other moves are
+     * only shown to be no better than the last one returned. The scores are not always exactly
+     * depth-limited: results found in the transposition table or the cache may come from deeper
+     * searches, so the same position can score slightly differently depending on what was searched
+     * before. Each iteration searches every root move with a window just below the
+     * `count`-th best score so far, so moves that cannot make the list fail low cheaply.
+     *
+     * @param player The discs of the player to move.
+     * @param opponent The discs of the other player.
+     * @param depth The depth to search each line to, counting the root move.
+     * @param count The number of moves to return.
+     * @return up to `count` results, best first, each with the move's score and expected line;
+     *         empty if the player has no legal move.
+     * @pre depth > 0 AND count > 0
+     */
+    public Result[] analyze(long player, long opponent, int depth, int count) {
+        long start = clock.getAsLong();
+        canAbort = false;
+        nodes = 0;
+        cutoffs = 0;
+        probes = 0;
+        hits = 0;
+
+        long legal = Bitboards.legalMoves(player, opponent);
+        int n = Long.bitCount(legal);
+        int[] moves = new int[n];
+        int[] scores = new int[n];
+        for (int i = 0; i < n; i++, legal &= legal - 1) {
+            moves[i] = Long.numberOfTrailingZeros(legal);
+        }
+        int empties = 64 - Long.bitCount(player | opponent);
+        int keep = Math.min(count, n);
+
+        int searched = 0;
+        for (int d = 1; d <= depth; d++) {
+            searched = d;
+            for (int i = 0; i < n; i++) {
+                // Scores at or below `floor` cannot enter the list, so searching above it is enough.
+                int floor = (i < keep) ? -INF : kthLargest(scores, i, keep) - 1;
+                long flips = Bitboards.flips(player, opponent, moves[i]);
+                scores[i] = -negamax(opponent & ~flips, player | flips | (1L << moves[i]), d - 1,
+                        -INF, -floor, 1);
+            }
+            sortByScore(moves, scores);
+            if (d >= empties) {
+                break;
+            }
+        }
+
+        Result[] best = new Result[keep];
+        for (int i = 0; i < keep; i++) {
+            best[i] = new Result(moves[i], scores[i], searched,
+                    principalVariation(player, opponent, moves[i], searched), nodes);
+        }
+        EngineMetrics.searchCompleted(nodes, cutoffs, probes, hits, clock.getAsLong() - start);
+        return best;
+    }
+
+    /**
+     * Returns the `k`-th largest of the first `n` scores.
+     */
+    private static int kthLargest(int[] scores, int n, int k) {
+        int[] sorted = Arrays.copyOf(scores, n);
+        Arrays.sort(sorted);
+        return sorted[n - k];
+    }
+
+    /**
+     * Sorts the moves by descending score, keeping equal scores in their current order.
+     */
+    private static void sortByScore(int[] moves, int[] scores) {
+        for (int i = 1; i < moves.length; i++) {
+            int move = moves[i];
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                moves[j + 1] = moves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            scores[j + 1] = score;
+        }
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible. May be called from any thread; the
+     * request stays in effect until `clearStop` is called.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Withdraws an earlier `stop` request so the next search can run.
+     */
+    public void clearStop() {
+        stopRequested = false;
+    }
+
+    private int negamax(long p, long o, int depth, int alpha, int beta, int ply) {
+        if ((++nodes & 1023) == 0 && canAbort && (stopRequested || clock.getAsLong() - deadline >= 0)) {
+            throw ABORTED;
+        }
+        long moves = Bitboards.legalMoves(p, o);
+        if (moves == 0) {
+            if (Bitboards.legalMoves(o, p) == 0) {
+                return finalScore(p, o);
+            }
+            return -negamax(o, p, depth, -beta, -alpha, ply + 1);
+        }
+        int empties = 64 - Long.bitCount(p | o);
+        if (ply > 0 && empties <= ENDGAME_EMPTIES && depth >= empties) {
+            return solve(p, o, alpha, beta);
+        }
+        if (depth == 0) {
+            return evaluate(p, o, moves);
+        }
+
+        long key = Position.hash64(p, o);
+        int slot = (int) key & ttMask;
+        int ttMove = NO_MOVE;
+        long data = (ttKeys[slot] == key) ? ttData[slot] : PositionCache.MISS;
+        if (cache != null && depth >= CACHE_MIN_DEPTH
+                && (data == PositionCache.MISS || PositionCache.depthOf(data) < depth)) {
+            long cached = cache.probe(key);
+            if (cached != PositionCache.MISS && (data == PositionCache.MISS
+                    || PositionCache.depthOf(cached) > PositionCache.depthOf(data))) {
+                data = cached;
+            }
+        }
+        probes++;
+        if (data != PositionCache.MISS) {
+            hits++;
+            ttMove = PositionCache.moveOf(data);
+            if (ply > 0 && PositionCache.depthOf(data) >= depth) {
+                int score = PositionCache.scoreOf(data);
+                int bound = PositionCache.boundOf(data);
+                if (bound == EXACT || (bound == LOWER && score >= beta) || (bound == UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int originalAlpha = alpha;
+        int bestScore = -INF;
+        int bestMove = NO_MOVE;
+        for (int k = -1; k < ORDER.length; k++) {
+            long candidates;
+            if (k < 0) {
+                candidates = (ttMove != NO_MOVE) ? moves & (1L << ttMove) : 0;
+            } else {
+                candidates = moves & ORDER[k];
+                if (ttMove != NO_MOVE) {
+                    candidates &= ~(1L << ttMove);
+                }
+            }
+            while (candidates != 0) {
+                int sq = Long.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+                long flips = Bitboards.flips(p, o, sq);
+                int score = -negamax(o & ~flips, p | flips | (1L << sq), depth - 1, -beta, -alpha, ply + 1);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = sq;
+                    if (score > alpha) {
+                        alpha = score;
+                        if (alpha >= beta) {
+                            cutoffs++;
+                            k = ORDER.length;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        int bound = (bestScore <= originalAlpha) ? UPPER : (bestScore >= beta) ? LOWER : EXACT;
+        data = PositionCache.pack(bestScore, depth, bound, bestMove);
+        ttKeys[slot] = key;
+        ttData[slot] = data;
+        if (cache != null && depth >= CACHE_MIN_DEPTH) {
+            cache.store(key, data);
+        }
+        if (ply == 0) {
+            rootBest = bestMove;
+        }
+        return bestScore;
+    }
+
+    /**
+     * Searches to the end of the game, scoring final disc differences.
+     */
+    private int solve(long p, long o, int alpha, int beta) {
+        if ((++nodes & 1023) == 0 && canAbort && (stopRequested || clock.getAsLong() - deadline >= 0)) {
+            throw ABORTED;
+        }
+        long moves = Bitboards.legalMoves(p, o);
+        if (moves == 0) {
+            if (Bitboards.legalMoves(o, p) == 0) {
+                return finalScore(p, o);
+            }
+            return -solve(o, p, -beta, -alpha);
+        }
+        int upper = Stability.scoreUpperBound(p, o) * FINAL_SCALE;
+        if (upper <= alpha) {
+            cutoffs++;
+            return upper;
+        }
+        int bestScore = -INF;
+        for (int k = 0; k < ORDER.length; k++) {
+            long candidates = moves & ORDER[k];
+            while (candidates != 0) {
+                int sq = Long.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+                long flips = Bitboards.flips(p, o, sq);
+                int score = -solve(o & ~flips, p | flips | (1L << sq), -beta, -alpha);
+                if (score > bestScore) {
+                    bestScore = score;
+                    if (score > alpha) {
+                        alpha = score;
+                        if (alpha >= beta) {
+                            cutoffs++;
+                            return bestScore;
+                        }
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * Scores a position that is not over from the view of the player to move: mobility, corners,
+     * squares next to empty corners and, with a small weight, discs.
+     */
+    private static int evaluate(long p, long o, long moves) {
+        int mobility = Long.bitCount(moves) - Long.bitCount(Bitboards.legalMoves(o, p));
+        int corners = Long.bitCount(p & CORNERS) - Long.bitCount(o & CORNERS);
+        long openCorners = CORNERS & ~(p | o);
+        long openCornerNeighbours = X_SQUARES & (Bitboards.shift(openCorners, 4) | Bitboards.shift(openCorners, 5)
+                | Bitboards.shift(openCorners, 6) | Bitboards.shift(openCorners, 7));
+        int xSquares = Long.bitCount(p & openCornerNeighbours) - Long.bitCount(o & openCornerNeighbours);
+        int discs = Long.bitCount(p) - Long.bitCount(o);
+        return 60 * mobility + 800 * corners - 300 * xSquares + 5 * discs;
+    }
+
+    private static int finalScore(long p, long o) {
+        return (Long.bitCount(p) - Long.bitCount(o)) * FINAL_SCALE;
+    }
+
+    /**
+     * Plays `first` and then follows the best moves stored in the transposition table (or the
+     * persistent cache) for at most `depth` moves in all.
+     */
+    private int[] principalVariation(long p, long o, int first, int depth) {
+        int[] line = new int[depth];
+        int length = 0;
+        line[length++] = first;
+        long flips = Bitboards.flips(p, o, first);
+        long next = o & ~flips;
+        o = p | flips | (1L << first);
+        p = next;
+        while (length < depth) {
+            if (Bitboards.legalMoves(p, o) == 0) {
+                break;
+            }
+            long key = Position.hash64(p, o);
+            int slot = (int) key & ttMask;
+            long data = (ttKeys[slot] == key) ? ttData[slot] : (cache != null) ? cache.probe(key) : PositionCache.MISS;
+            if (data == PositionCache.MISS) {
+                break;
+            }
+            int sq = PositionCache.moveOf(data);
+            if (sq == NO_MOVE || (Bitboards.legalMoves(p, o) & (1L << sq)) == 0) {
+                break;
+            }
+            line[length++] = sq;
+            flips = Bitboards.flips(p, o, sq);
+            next = o & ~flips;
+            o = p | flips | (1L << sq);
+            p = next;
+        }
+        return Arrays.copyOf(line, length);
+    }
+}
@@ -0,0 +1,251 @@
+package cpsc2150.extendedOthello.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The `EngineMetrics` class counts what the game engine does: moves applied, discs flipped,
+ * legal-move checks, board renders, game durations and, when a computer player is searching,
+ * search nodes, cutoffs, cache probes and ponder results. Counters are `LongAdder`s, so threads
+ * never contend on a shared counter, and durations go into a `LatencyHistogram`.
+ *
+ * Metrics are off unless the JVM is started with `-Dothello.metrics=true`. Every recording method
+ * is guarded by the constant `ENABLED`, so when metrics are off the JIT removes the calls entirely.
+ * When on, the metrics are published as a JMX MBean, and `-Dothello.metrics.logSeconds=n` also
+ * prints a summary line to standard error every n seconds.
+ */
+public final class EngineMetrics implements EngineMetricsMBean {
+
+    /** Whether metrics are recorded at all; read once at class-load time. */
+    public static final boolean ENABLED = Boolean.getBoolean("othello.metrics");
+
+    /** The name the MBean is registered under. */
+    public static final String OBJECT_NAME = "cpsc2150.extendedOthello:type=EngineMetrics";
+
+    private static final EngineMetrics INSTANCE = new EngineMetrics();
+
+    private final LongAdder movesApplied = new LongAdder();
+    private final LongAdder discsFlipped = new LongAdder();
+    private final LongAdder legalMoveChecks = new LongAdder();
+    private final LongAdder boardRenders = new LongAdder();
+    private final LatencyHistogram gameDurations = new LatencyHistogram();
+    private final LongAdder searchNodes = new LongAdder();
+    private final LongAdder searchCutoffs = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private final LongAdder cacheProbes = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder ponderHits = new LongAdder();
+    private final LongAdder ponderMisses = new LongAdder();
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                System.err.println("Could not register engine metrics: " + e.getMessage());
+            }
+            long seconds = Long.getLong("othello.metrics.logSeconds", 0);
+            if (seconds > 0) {
+                ScheduledExecutorService logger = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "engine-metrics-log");
+                    t.setDaemon(true);
+                    return t;
+                });
+                logger.scheduleAtFixedRate(() -> System.err.println(INSTANCE.summary()),
+                        seconds, seconds, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private EngineMetrics() {
+    }
+
+    /**
+     * Returns the shared metrics instance.
+     *
+     * @return the engine metrics.
+     */
+    public static EngineMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records a move that was applied to a board.
+     *
+     * @param flips The number of discs the move flipped.
+     */
+    public static void moveApplied(int flips) {
+        if (ENABLED) {
+            INSTANCE.movesApplied.increment();
+            INSTANCE.discsFlipped.add(flips);
+        }
+    }
+
+    /**
+     * Records one legal-move check.
+     */
+    public static void legalMoveChecked() {
+        if (ENABLED) {
+            INSTANCE.legalMoveChecks.increment();
+        }
+    }
+
+    /**
+     * Records one board rendered to text.
+     */
+    public static void boardRendered() {
+        if (ENABLED) {
+            INSTANCE.boardRenders.increment();
+        }
+    }
+
+    /**
+     * Records a game played to the end.
+     *
+     * @param nanos How long the game took, in nanoseconds.
+     */
+    public static void gameCompleted(long nanos) {
+        if (ENABLED) {
+            INSTANCE.gameDurations.record(nanos);
+        }
+    }
+
+    /**
+     * Records the work of one finished search.
+     *
+     * @param nodes The number of positions visited.
+     * @param cutoffs The number of beta and stability cutoffs.
+     * @param probes The number of transposition-cache lookups.
+     * @param hits The number of lookups that found the position.
+     * @param nanos How long the search ran, in nanoseconds.
+     */
+    public static void searchCompleted(long nodes, long cutoffs, long probes, long hits, long nanos) {
+        if (ENABLED) {
+            INSTANCE.searchNodes.add(nodes);
+            INSTANCE.searchCutoffs.add(cutoffs);
+            INSTANCE.cacheProbes.add(probes);
+            INSTANCE.cacheHits.add(hits);
+            INSTANCE.searchNanos.add(nanos);
+        }
+    }
+
+    /**
+     * Records whether a pondered reply matched the move that was actually played.
+     *
+     * @param hit true if the prediction was right.
+     */
+    public static void ponderResult(boolean hit) {
+        if (ENABLED) {
+            (hit ? INSTANCE.ponderHits : INSTANCE.ponderMisses).increment();
+        }
+    }
+
+    /**
+     * Returns a one-line summary of all metrics.
+     *
+     * @return the summary line.
+     */
+    public String summary() {
+        return String.format("metrics: moves=%d flips/move=%.2f legalChecks=%d renders=%d games=%d "
+                        + "gameP50=%.1fms gameP99=%.1fms nodes=%d nps=%.0f cutoffs=%d cacheHitRate=%.2f "
+                        + "ponderHits=%d ponderMisses=%d",
+                getMovesApplied(), getAverageFlipsPerMove(), getLegalMoveChecks(), getBoardRenders(),
+                getGamesCompleted(), getGameDurationP50Millis(), getGameDurationP99Millis(),
+                getSearchNodes(), getSearchNodesPerSecond(), getSearchCutoffs(), getCacheHitRate(),
+                getPonderHits(), getPonderMisses());
+    }
+
+    @Override
+    public long getMovesApplied() {
+        return movesApplied.sum();
+    }
+
+    @Override
+    public long getDiscsFlipped() {
+        return discsFlipped.sum();
+    }
+
+    @Override
+    public double getAverageFlipsPerMove() {
+        long moves = movesApplied.sum();
+        return (moves == 0) ? 0 : (double) discsFlipped.sum() / moves;
+    }
+
+    @Override
+    public long getLegalMoveChecks() {
+        return legalMoveChecks.sum();
+    }
+
+    @Override
+    public long getBoardRenders() {
+        return boardRenders.sum();
+    }
+
+    @Override
+    public long getGamesCompleted() {
+        return gameDurations.count();
+    }
+
+    @Override
+    public double getGameDurationP50Millis() {
+        return gameDurations.percentile(50) / 1e6;
+    }
+
+    @Override
+    public double getGameDurationP99Millis() {
+        return gameDurations.percentile(99) / 1e6;
+    }
+
+    @Override
+    public long getSearchNodes() {
+        return searchNodes.sum();
+    }
+
+    @Override
+    public double getSearchNodesPerSecond() {
+        long nanos = searchNanos.sum();
+        return (nanos == 0) ? 0 : searchNodes.sum() * 1e9 / nanos;
+    }
+
+    @Override
+    public long getSearchCutoffs() {
+        return searchCutoffs.sum();
+    }
+
+    @Override
+    public double getCacheHitRate() {
+        long probes = cacheProbes.sum();
+        return (probes == 0) ? 0 : (double) cacheHits.sum() / probes;
+    }
+
+    @Override
+    public long getPonderHits() {
+        return ponderHits.sum();
+    }
+
+    @Override
+    public long getPonderMisses() {
+        return ponderMisses.sum();
+    }
+
+    @Override
+    public void reset() {
+        movesApplied.reset();
+        discsFlipped.reset();
+        legalMoveChecks.reset();
+        boardRenders.reset();
+        gameDurations.reset();
+        searchNodes.reset();
+        searchCutoffs.reset();
+        searchNanos.reset();
+        cacheProbes.reset();
+        cacheHits.reset();
+        ponderHits.reset();
+        ponderMisses.reset();
+    }
+}
@@ -0,0 +1,82 @@
+package cpsc2150.extendedOthello.metrics;
+
+/**
+ * The JMX view of `EngineMetrics`, registered as `cpsc2150.extendedOthello:type=EngineMetrics`.
+ */
+public interface EngineMetricsMBean {
+
+    /**
+     * @return the number of moves applied with `placeToken`
+     */
+    long getMovesApplied();
+
+    /**
+     * @return the number of discs flipped by all applied moves
+     */
+    long getDiscsFlipped();
+
+    /**
+     * @return the average number of discs flipped per applied move
+     */
+    double getAverageFlipsPerMove();
+
+    /**
+     * @return the number of legal-move checks (`isLegalMove` and `hasLegalMove` calls)
+     */
+    long getLegalMoveChecks();
+
+    /**
+     * @return the number of boards rendered with `toString`
+     */
+    long getBoardRenders();
+
+    /**
+     * @return the number of games played to the end
+     */
+    long getGamesCompleted();
+
+    /**
+     * @return the median game duration in milliseconds
+     */
+    double getGameDurationP50Millis();
+
+    /**
+     * @return the 99th percentile game duration in milliseconds
+     */
+    double getGameDurationP99Millis();
+
+    /**
+     * @return the number of positions visited by computer-player searches
+     */
+    long getSearchNodes();
+
+    /**
+     * @return the search speed in positions per second of search time
+     */
+    double getSearchNodesPerSecond();
+
+    /**
+     * @return the number of search cutoffs
+     */
+    long getSearchCutoffs();
+
+    /**
+     * @return the fraction of transposition-cache lookups that found their position
+     */
+    double getCacheHitRate();
+
+    /**
+     * @return the number of times the computer predicted the human's reply correctly while pondering
+     */
+    long getPonderHits();
+
+    /**
+     * @return the number of times the human played a different reply than the one pondered
+     */
+    long getPonderMisses();
+
+    /**
+     * Clears every counter and histogram.
+     */
+    void reset();
+}
@@ -0,0 +1,101 @@
+package cpsc2150.extendedOthello.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The `LatencyHistogram` class records non-negative values (usually nanoseconds) into log-linear
+ * buckets, in the style of an HDR histogram. Each power of two is split into 16 sub-buckets,
+ * so any reported percentile is within about 6% of the true value while the whole histogram
+ * stays a fixed array of 1024 counters.
+ *
+ * Recording is lock-free and safe from any number of threads.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Records one value.
+     *
+     * @param value The value to record; negative values are recorded as 0.
+     */
+    public void record(long value) {
+        counts.incrementAndGet(bucketOf(Math.max(0, value)));
+    }
+
+    /**
+     * Returns how many values have been recorded.
+     *
+     * @return the total count.
+     */
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the value at a percentile of everything recorded so far.
+     *
+     * @param percentile The percentile, from 0.0 to 100.0.
+     * @return the upper edge of the bucket holding that percentile, or 0 if nothing was recorded.
+     */
+    public long percentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperEdge(i);
+            }
+        }
+        return upperEdge(BUCKETS - 1);
+    }
+
+    /**
+     * Clears every recorded value.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Maps a value to its bucket: values below 16 get a bucket each, and larger values are
+     * grouped by their highest set bit and the 4 bits just below it.
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperEdge(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long low = (1L << exponent) | (sub << (exponent - SUB_BITS));
+        return low + (1L << (exponent - SUB_BITS)) - 1;
+    }
+}
@@ -1,5 +1,7 @@
 package cpsc2150.extendedOthello.models;
 
+import cpsc2150.extendedOthello.metrics.EngineMetrics;
+
 import java.util.HashMap;
 
 /**
@@ -18,6 +20,7 @@ public abstract class AbsOthelloBoard implements IOthelloBoard {
      */
     @Override
     public String toString() {
+        EngineMetrics.boardRendered();
         StringBuilder sb = new StringBuilder();
 
         // Header row with column numbers
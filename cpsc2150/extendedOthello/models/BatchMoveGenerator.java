@@ -0,0 +1,155 @@
+package cpsc2150.extendedOthello.models;
+
+/**
+ * The `BatchMoveGenerator` class runs move generation over many independent positions at once.
+ * Positions are passed as parallel arrays: `player[i]` and `opponent[i]` are the bitboards
+ * (see `Bitboards`) of the player to move and of the opponent in position i.
+ *
+ * When the optional `VectorMoveGenerator` kernel has been compiled (it lives in the separate
+ * `vector/` source root) and the JVM is started with `--add-modules jdk.incubator.vector`, the work
+ * is done with `LongVector` lanes, several positions per instruction. Otherwise the same results
+ * are computed one position at a time with `Bitboards`.
+ */
+public final class BatchMoveGenerator {
+
+    /**
+     * The operations that make up one implementation of the batch API.
+     */
+    interface Kernel {
+        void legalMoves(long[] player, long[] opponent, long[] moves, int count);
+
+        void flips(long[] player, long[] opponent, int[] squares, long[] flips, int count);
+
+        void discCounts(long[] player, long[] opponent, int[] playerCounts, int[] opponentCounts, int count);
+    }
+
+    private static final Kernel KERNEL = loadKernel();
+
+    private BatchMoveGenerator() {
+    }
+
+    /**
+     * Tells whether the Vector API implementation is in use.
+     *
+     * @return true if positions are processed in `LongVector` lanes; false for the scalar fallback.
+     */
+    public static boolean isVectorized() {
+        return !(KERNEL instanceof ScalarKernel);
+    }
+
+    /**
+     * Computes the legal moves of the player to move for each position.
+     *
+     * @param player The discs of the player to move, one bitboard per position.
+     * @param opponent The discs of the opponent, one bitboard per position.
+     * @param moves Receives the legal-move bitboard of each position.
+     * @param count The number of positions to process.
+     *
+     * @pre every array holds at least `count` entries
+     */
+    public static void legalMoves(long[] player, long[] opponent, long[] moves, int count) {
+        checkLength(count, player.length, opponent.length, moves.length);
+        KERNEL.legalMoves(player, opponent, moves, count);
+    }
+
+    /**
+     * Computes the discs flipped by one move in each position.
+     *
+     * @param player The discs of the player to move, one bitboard per position.
+     * @param opponent The discs of the opponent, one bitboard per position.
+     * @param squares The square of the move to make in each position (row * 8 + col), or -1 for none.
+     * @param flips Receives the bitboard of flipped discs of each position; 0 if the move is not legal.
+     * @param count The number of positions to process.
+     *
+     * @pre every array holds at least `count` entries
+     */
+    public static void flips(long[] player, long[] opponent, int[] squares, long[] flips, int count) {
+        checkLength(count, player.length, opponent.length, squares.length);
+        checkLength(count, flips.length, flips.length, flips.length);
+        KERNEL.flips(player, opponent, squares, flips, count);
+    }
+
+    /**
+     * Counts the discs of both sides in each position.
+     *
+     * @param player The discs of the player to move, one bitboard per position.
+     * @param opponent The discs of the opponent, one bitboard per position.
+     * @param playerCounts Receives the number of discs of the player to move.
+     * @param opponentCounts Receives the number of discs of the opponent.
+     * @param count The number of positions to process.
+     *
+     * @pre every array holds at least `count` entries
+     */
+    public static void discCounts(long[] player, long[] opponent, int[] playerCounts, int[] opponentCounts,
+                                  int count) {
+        checkLength(count, player.length, opponent.length, playerCounts.length);
+        checkLength(count, opponentCounts.length, opponentCounts.length, opponentCounts.length);
+        KERNEL.discCounts(player, opponent, playerCounts, opponentCounts, count);
+    }
+
+    private static void checkLength(int count, int a, int b, int c) {
+        if (count < 0 || a < count || b < count || c < count) {
+            throw new IllegalArgumentException("Arrays must hold at least " + count + " positions");
+        }
+    }
+
+    /**
+     * Picks the Vector API kernel when its module and its class are present, and the scalar kernel
+     * otherwise. The vector kernel is only loaded by name, so this class never links against the
+     * incubator module and the core sources compile without it.
+     */
+    private static Kernel loadKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (Kernel) Class.forName("cpsc2150.extendedOthello.models.VectorMoveGenerator")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fall through to the scalar kernel
+            }
+        }
+        return new ScalarKernel();
+    }
+
+    /**
+     * Processes positions one at a time with `Bitboards`. Also used for the tail of each
+     * batch that does not fill a whole vector.
+     */
+    static final class ScalarKernel implements Kernel {
+
+        @Override
+        public void legalMoves(long[] player, long[] opponent, long[] moves, int count) {
+            legalMoves(player, opponent, moves, 0, count);
+        }
+
+        @Override
+        public void flips(long[] player, long[] opponent, int[] squares, long[] flips, int count) {
+            flips(player, opponent, squares, flips, 0, count);
+        }
+
+        @Override
+        public void discCounts(long[] player, long[] opponent, int[] playerCounts, int[] opponentCounts,
+                               int count) {
+            discCounts(player, opponent, playerCounts, opponentCounts, 0, count);
+        }
+
+        static void legalMoves(long[] player, long[] opponent, long[] moves, int from, int to) {
+            for (int i = from; i < to; i++) {
+                moves[i] = Bitboards.legalMoves(player[i], opponent[i]);
+            }
+        }
+
+        static void flips(long[] player, long[] opponent, int[] squares, long[] flips, int from, int to) {
+            for (int i = from; i < to; i++) {
+                flips[i] = squares[i] < 0 ? 0 : Bitboards.flips(player[i], opponent[i], squares[i]);
+            }
+        }
+
+        static void discCounts(long[] player, long[] opponent, int[] playerCounts, int[] opponentCounts,
+                               int from, int to) {
+            for (int i = from; i < to; i++) {
+                playerCounts[i] = Long.bitCount(player[i]);
+                opponentCounts[i] = Long.bitCount(opponent[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package cpsc2150.extendedOthello.models;
+
+/**
+ * The `Bitboards` class holds move generation for positions stored as bitboards.
+ * A bitboard is a `long` with one bit per square, where bit (row * 8 + col) is set when
+ * the square is occupied. A position is described by two bitboards: the discs of the
+ * player to move and the discs of their opponent.
+ *
+ * These methods give the same results as the rules in `OthelloBoard`, but work on all
+ * squares at once with shifts and masks instead of walking the board cell by cell.
+ */
+public final class Bitboards {
+
+    /** Squares in column 0. */
+    public static final long FILE_A = 0x0101010101010101L;
+    /** Squares in column 7. */
+    public static final long FILE_H = 0x8080808080808080L;
+
+    /** Shift amounts for the eight directions; positive shifts move towards higher bits. */
+    static final int[] SHIFTS = {1, -1, 8, -8, 9, 7, -7, -9};
+
+    /** The mask to apply after each shift in `SHIFTS`, which stops discs wrapping around a row. */
+    static final long[] SHIFT_MASKS = {
+            ~FILE_A, ~FILE_H, -1L, -1L, ~FILE_A, ~FILE_H, ~FILE_A, ~FILE_H
+    };
+
+    private Bitboards() {
+    }
+
+    /**
+     * Shifts every disc of a bitboard one step in direction `dir` (an index into `SHIFTS`).
+     *
+     * @param bits The bitboard to shift.
+     * @param dir The direction index (0-7).
+     * @return the shifted bitboard; discs that would leave the board are dropped.
+     */
+    public static long shift(long bits, int dir) {
+        int s = SHIFTS[dir];
+        return (s > 0 ? bits << s : bits >>> -s) & SHIFT_MASKS[dir];
+    }
+
+    /**
+     * Computes every legal move of the player to move.
+     *
+     * @param player The discs of the player to move.
+     * @param opponent The discs of the opponent.
+     * @return a bitboard with a bit set for every empty square that would flip at least one disc.
+     */
+    public static long legalMoves(long player, long opponent) {
+        long empty = ~(player | opponent);
+        long moves = 0;
+        for (int dir = 0; dir < 8; dir++) {
+            // Collect runs of opponent discs that start next to one of the player's discs
+            long run = shift(player, dir) & opponent;
+            run |= shift(run, dir) & opponent;
+            run |= shift(run, dir) & opponent;
+            run |= shift(run, dir) & opponent;
+            run |= shift(run, dir) & opponent;
+            run |= shift(run, dir) & opponent;
+            moves |= shift(run, dir) & empty;
+        }
+        return moves;
+    }
+
+    /**
+     * Computes the discs flipped by a move.
+     *
+     * @param player The discs of the player to move.
+     * @param opponent The discs of the opponent.
+     * @param square The square of the move (row * 8 + col).
+     * @return a bitboard of the opponent discs the move flips; 0 if the move is not legal.
+     */
+    public static long flips(long player, long opponent, int square) {
+        long move = 1L << square;
+        if (((player | opponent) & move) != 0) {
+            return 0;
+        }
+        long flipped = 0;
+        for (int dir = 0; dir < 8; dir++) {
+            long run = 0;
+            long next = shift(move, dir);
+            while ((next & opponent) != 0) {
+                run |= next;
+                next = shift(next, dir);
+            }
+            if ((next & player) != 0) {
+                flipped |= run;
+            }
+        }
+        return flipped;
+    }
+
+    /**
+     * Returns the bitboard of a player's discs on a board.
+     *
+     * @param board The board to read.
+     * @param p The player token ('X' or 'O').
+     * @return a bitboard with a bit set for every square the player occupies.
+     */
+    public static long fromBoard(IOthelloBoard board, char p) {
+        char[][] cells = board.getBoardCopy();
+        long bits = 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                if (cells[r][c] == p) {
+                    bits |= 1L << (r * 8 + c);
+                }
+            }
+        }
+        return bits;
+    }
+}
@@ -8,6 +8,15 @@ package cpsc2150.extendedOthello.models;
  * they are manipulated on the board.
  */
 public class BoardPosition {
+    /** One shared position per square, indexed by `row * 8 + column`. */
+    private static final BoardPosition[] SQUARES = new BoardPosition[64];
+
+    static {
+        for (int i = 0; i < 64; i++) {
+            SQUARES[i] = new BoardPosition(i / 8, i % 8);
+        }
+    }
+
     private int row;
     private int col;
 
@@ -22,6 +31,17 @@ public class BoardPosition {
         this.col = c;
     }
 
+    /**
+     * Returns the shared position for a square, so callers that work with square indexes
+     * don't allocate a new position per move.
+     *
+     * @param square The square index, `row * 8 + column` (0-63).
+     * @return the position of that square.
+     */
+    public static BoardPosition of(int square) {
+        return SQUARES[square];
+    }
+
     /**
      * Returns the row of the board position.
      * 
@@ -0,0 +1,160 @@
+package cpsc2150.extendedOthello.models;
+
+/**
+ * The `FlipTables` class answers "which discs does this move flip along one line" with a single
+ * table lookup. Every line through a square (its row, its column and its two diagonals) is read
+ * out of the bitboards as 8 bits indexed by line coordinate: the column for rows and diagonals,
+ * the row for columns. The other 7 cells of the line are then encoded in base 3 (empty or other,
+ * player, opponent), and the table gives the cells to flip for every encoding and every position
+ * of the moving square in the line.
+ *
+ * The table is built once when the class is loaded and takes 8 * 3^7 bytes (about 17 KB), so it
+ * stays in the L1 cache. Squares past the end of a short diagonal read as empty, which stops a
+ * run exactly like the board edge does.
+ */
+final class FlipTables {
+
+    private static final int CODES = 2187; // 3^7
+
+    private static final long FILE_A = Bitboards.FILE_A;
+
+    /** Gathers one bit per row of file A into the top byte, row r going to bit r. */
+    private static final long FILE_TO_RANK = 0x0102040810204080L;
+
+    /** FLIPS[pos * CODES + code] is the flip pattern, in line coordinates, for the moving square at `pos`. */
+    private static final byte[] FLIPS = new byte[8 * CODES];
+
+    /** TERNARY[bits] is the 7-bit mask `bits` read as base-3 digits (each set bit counts 3^k). */
+    private static final int[] TERNARY = new int[128];
+
+    /** DIAGONALS[sq] and ANTI_DIAGONALS[sq] are the squares on the two diagonals through sq. */
+    private static final long[] DIAGONALS = new long[64];
+    private static final long[] ANTI_DIAGONALS = new long[64];
+
+    static {
+        for (int bits = 0; bits < 128; bits++) {
+            int code = 0;
+            for (int k = 6; k >= 0; k--) {
+                code = code * 3 + ((bits >>> k) & 1);
+            }
+            TERNARY[bits] = code;
+        }
+
+        for (int sq = 0; sq < 64; sq++) {
+            int row = sq / 8, col = sq % 8;
+            for (int other = 0; other < 64; other++) {
+                int r = other / 8, c = other % 8;
+                if (r - c == row - col) {
+                    DIAGONALS[sq] |= 1L << other;
+                }
+                if (r + c == row + col) {
+                    ANTI_DIAGONALS[sq] |= 1L << other;
+                }
+            }
+        }
+
+        int[] cells = new int[8];
+        for (int pos = 0; pos < 8; pos++) {
+            for (int code = 0; code < CODES; code++) {
+                // Decode the 7 other cells (0 = empty, 1 = player, 2 = opponent) around `pos`
+                int rest = code;
+                for (int k = 0; k < 8; k++) {
+                    if (k != pos) {
+                        cells[k] = rest % 3;
+                        rest /= 3;
+                    }
+                }
+                int flips = 0;
+                int k = pos - 1;
+                while (k >= 0 && cells[k] == 2) {
+                    k--;
+                }
+                if (k >= 0 && cells[k] == 1) {
+                    for (int i = k + 1; i < pos; i++) {
+                        flips |= 1 << i;
+                    }
+                }
+                k = pos + 1;
+                while (k < 8 && cells[k] == 2) {
+                    k++;
+                }
+                if (k < 8 && cells[k] == 1) {
+                    for (int i = pos + 1; i < k; i++) {
+                        flips |= 1 << i;
+                    }
+                }
+                FLIPS[pos * CODES + code] = (byte) flips;
+            }
+        }
+    }
+
+    private FlipTables() {
+    }
+
+    /**
+     * Returns the cells to flip along a row.
+     *
+     * @param player The discs of the player whose token is at the square.
+     * @param opponent The discs that can be flipped.
+     * @param row The row of the square.
+     * @param col The column of the square.
+     * @return a bit per column to flip.
+     */
+    static int row(long player, long opponent, int row, int col) {
+        int shift = row * 8;
+        return lookup((int) (player >>> shift) & 0xFF, (int) (opponent >>> shift) & 0xFF, col);
+    }
+
+    /**
+     * Returns the cells to flip along a column.
+     *
+     * @param player The discs of the player whose token is at the square.
+     * @param opponent The discs that can be flipped.
+     * @param row The row of the square.
+     * @param col The column of the square.
+     * @return a bit per row to flip.
+     */
+    static int column(long player, long opponent, int row, int col) {
+        int p = (int) ((((player >>> col) & FILE_A) * FILE_TO_RANK) >>> 56);
+        int o = (int) ((((opponent >>> col) & FILE_A) * FILE_TO_RANK) >>> 56);
+        return lookup(p, o, row);
+    }
+
+    /**
+     * Returns the cells to flip along the diagonal running from the top-left to the bottom-right.
+     *
+     * @param player The discs of the player whose token is at the square.
+     * @param opponent The discs that can be flipped.
+     * @param row The row of the square.
+     * @param col The column of the square.
+     * @return a bit per column to flip; the cell in column k is in row `row - col + k`.
+     */
+    static int diagonal(long player, long opponent, int row, int col) {
+        long mask = DIAGONALS[row * 8 + col];
+        return lookup((int) (((player & mask) * FILE_A) >>> 56), (int) (((opponent & mask) * FILE_A) >>> 56), col);
+    }
+
+    /**
+     * Returns the cells to flip along the diagonal running from the top-right to the bottom-left.
+     *
+     * @param player The discs of the player whose token is at the square.
+     * @param opponent The discs that can be flipped.
+     * @param row The row of the square.
+     * @param col The column of the square.
+     * @return a bit per column to flip; the cell in column k is in row `row + col - k`.
+     */
+    static int antiDiagonal(long player, long opponent, int row, int col) {
+        long mask = ANTI_DIAGONALS[row * 8 + col];
+        return lookup((int) (((player & mask) * FILE_A) >>> 56), (int) (((opponent & mask) * FILE_A) >>> 56), col);
+    }
+
+    /**
+     * Drops the moving square's own bit from both 8-bit lines and looks up the flips.
+     */
+    private static int lookup(int player, int opponent, int pos) {
+        int low = (1 << pos) - 1;
+        int p = (player & low) | ((player >>> 1) & ~low);
+        int o = (opponent & low) | ((opponent >>> 1) & ~low);
+        return FLIPS[pos * CODES + TERNARY[p & 0x7F] + 2 * TERNARY[o & 0x7F]] & 0xFF;
+    }
+}
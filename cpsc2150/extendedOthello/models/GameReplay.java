@@ -0,0 +1,190 @@
+package cpsc2150.extendedOthello.models;
+
+import java.io.IOException;
+
+/**
+ * The `GameReplay` class replays one scripted game (see `MoveReader`) on an `OthelloBoard` and checks it
+ * against the full rules. A game is rejected at the first move onto an occupied square, move that flips
+ * nothing, pass while the player still has a legal move, move or pass after the game is over,
+ * recorded final score that does not match the board, or move after the recorded score. A game that
+ * stops while a player can still move is rejected too, unless its recorded score already proved it was over.
+ * A player without a legal move may either record "pass" or simply be skipped.
+ *
+ * An instance keeps one board and is reused from game to game, so replaying allocates nothing.
+ * It is not thread-safe; each thread needs its own.
+ */
+public class GameReplay {
+
+    private final OthelloBoard board;
+
+    private int moves;
+    private String reason;
+    private int lineNumber;
+    private int tokenIndex;
+    private char rejectedPlayer;
+    private int rejectedSquare;
+
+    /**
+     * Constructs a `GameReplay` that plays its games on the given board.
+     *
+     * @param board The board to replay on; it is reset at the start of every game.
+     */
+    public GameReplay(OthelloBoard board) {
+        this.board = board;
+    }
+
+    /**
+     * Replays one game, starting with its already-read first token. Either way the game's `END_OF_GAME`
+     * has been read when this returns, so the next call to `reader.next()` starts the next game.
+     *
+     * @param reader The reader positioned inside the game.
+     * @param token The game's first token.
+     * @return true if the whole game was legal; false if it was rejected (see `getReason()`).
+     * @throws IOException if the input cannot be read.
+     */
+    public boolean replay(MoveReader reader, int token) throws IOException {
+        board.reset();
+        moves = 0;
+        reason = null;
+        char player = OthelloBoard.PLAYER1;
+        int line = reader.getLineNumber();
+        boolean scored = false;
+
+        for (; token != MoveReader.END_OF_GAME; token = reader.next()) {
+            char opponent = (player == OthelloBoard.PLAYER1) ? OthelloBoard.PLAYER2 : OthelloBoard.PLAYER1;
+
+            if (token == MoveReader.BAD_TOKEN) {
+                return reject(reader, player, -1, "unreadable move");
+            }
+            if (scored) {
+                return reject(reader, player, -1, "moves recorded after the final score");
+            }
+            if (token == MoveReader.SCORE) {
+                if (board.hasLegalMove(player) || board.hasLegalMove(opponent)) {
+                    return reject(reader, player, -1, "final score recorded before the game is over");
+                }
+                int[] score = board.getScore();
+                if (score[0] != reader.getScoreX() || score[1] != reader.getScoreO()) {
+                    return reject(reader, player, -1, "recorded score " + reader.getScoreX() + "-"
+                            + reader.getScoreO() + " but the board has " + score[0] + "-" + score[1]);
+                }
+                scored = true;
+                continue;
+            }
+
+            boolean canMove = board.hasLegalMove(player);
+            if (token == MoveReader.PASS) {
+                if (canMove) {
+                    return reject(reader, player, -1, "pass while " + player + " has a legal move");
+                }
+                if (!board.hasLegalMove(opponent)) {
+                    return reject(reader, player, -1, "pass after the game is over");
+                }
+                player = opponent;
+                continue;
+            }
+
+            if (!canMove) {
+                // Unrecorded pass: the move belongs to the opponent, if anyone can still move
+                if (!board.hasLegalMove(opponent)) {
+                    return reject(reader, player, token, "move after the game is over");
+                }
+                player = opponent;
+            }
+
+            BoardPosition pos = BoardPosition.of(token);
+            if (!board.isPositionValid(pos)) {
+                return reject(reader, player, token, "square is already occupied");
+            }
+            if (!board.isLegalMove(player, pos)) {
+                return reject(reader, player, token, "move flips no discs");
+            }
+            board.placeToken(player, pos);
+            moves++;
+            player = (player == OthelloBoard.PLAYER1) ? OthelloBoard.PLAYER2 : OthelloBoard.PLAYER1;
+        }
+
+        // A recorded score already proved the game was over; otherwise check it was not cut short
+        if (!scored && (board.hasLegalMove(OthelloBoard.PLAYER1) || board.hasLegalMove(OthelloBoard.PLAYER2))) {
+            char toMove = board.hasLegalMove(player) ? player
+                    : (player == OthelloBoard.PLAYER1) ? OthelloBoard.PLAYER2 : OthelloBoard.PLAYER1;
+            return reject(line, reader.getTokenIndex() + 1, toMove, -1,
+                    "game ends while " + toMove + " can still move");
+        }
+        return true;
+    }
+
+    /**
+     * Records the rejection of the token just read, then skips and drains the rest of the game.
+     */
+    private boolean reject(MoveReader reader, char player, int square, String reason) throws IOException {
+        reject(reader.getLineNumber(), reader.getTokenIndex(), player, square, reason);
+        reader.skipGame();
+        while (reader.next() != MoveReader.END_OF_GAME) {
+            // Drain the rest of the rejected game
+        }
+        return false;
+    }
+
+    /**
+     * Records the rejection of the given token.
+     */
+    private boolean reject(int line, int token, char player, int square, String reason) {
+        this.lineNumber = line;
+        this.tokenIndex = token;
+        this.rejectedPlayer = player;
+        this.rejectedSquare = square;
+        this.reason = reason;
+        return false;
+    }
+
+    /**
+     * @return the board, holding the final position of the last game replayed (or the position
+     *         where it was rejected).
+     */
+    public OthelloBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * @return the number of moves played in the last game, up to its rejection if it was rejected.
+     */
+    public int getMoves() {
+        return moves;
+    }
+
+    /**
+     * @return why the last game was rejected, or null if it was legal.
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * @return the line of the token that got the last game rejected.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return the 1-based index, within its game, of the token that got the last game rejected.
+     */
+    public int getTokenIndex() {
+        return tokenIndex;
+    }
+
+    /**
+     * @return the player whose turn it was at the rejected token.
+     */
+    public char getPlayer() {
+        return rejectedPlayer;
+    }
+
+    /**
+     * @return the square of the rejected move, or -1 if the rejected token was not a move.
+     */
+    public int getSquare() {
+        return rejectedSquare;
+    }
+}
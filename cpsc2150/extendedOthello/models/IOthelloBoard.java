@@ -57,6 +57,41 @@ public interface IOthelloBoard {
      */
     boolean isPositionValid(BoardPosition pos);
 
+    /**
+     * Checks if placing the player's token at a position is a legal Othello move,
+     * meaning the position is empty and the token would flip at least one opponent token.
+     *
+     * @param p the player token ('X' or 'O')
+     * @param pos the position to check
+     * @return true if the move is legal for that player
+     *
+     * @pre p == 'X' or p == 'O' AND pos != null
+     * @post the board is unchanged
+     */
+    boolean isLegalMove(char p, BoardPosition pos);
+
+    /**
+     * Checks if the player has at least one legal move anywhere on the board.
+     *
+     * @param p the player token ('X' or 'O')
+     * @return true if the player can move; false if they have to pass
+     *
+     * @pre p == 'X' or p == 'O'
+     * @post the board is unchanged
+     */
+    boolean hasLegalMove(char p);
+
+    /**
+     * Counts the legal moves the player has.
+     *
+     * @param p the player token ('X' or 'O')
+     * @return the number of squares where the player can legally move
+     *
+     * @pre p == 'X' or p == 'O'
+     * @post the board is unchanged
+     */
+    int getMobility(char p);
+
     /**
      * Checks if a player occupies the specified board position.
      * 
@@ -0,0 +1,299 @@
+package cpsc2150.extendedOthello.models;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The `MoveReader` class parses scripted Othello games from a byte stream.
+ * Each line of input holds one game, written as a list of moves separated by whitespace.
+ * A move is either algebraic notation ("d3", column letter a-h then row 1-8) or a
+ * "row,col" pair using the same 0-7 indices as `BoardPosition`. The tokens "pass" and "--"
+ * record a pass. A game may end with its recorded final score, written as ":40-24"
+ * (X's count, then O's). Blank lines are ignored, and lines starting with '#' are comments.
+ *
+ * The reader works directly on bytes through its own buffer, so it never creates a
+ * `String` or other object per move. Moves are returned as square indices (row * 8 + col).
+ */
+public class MoveReader {
+
+    /** Returned by `next()` when the current game's line has ended. */
+    public static final int END_OF_GAME = -1;
+    /** Returned by `next()` when the input is exhausted. */
+    public static final int END_OF_INPUT = -2;
+    /** Returned by `next()` for a "pass" or "--" token. */
+    public static final int PASS = -3;
+    /** Returned by `next()` when a token could not be parsed as a move. */
+    public static final int BAD_TOKEN = -4;
+    /** Returned by `next()` for a recorded final score; see `getScoreX()` and `getScoreO()`. */
+    public static final int SCORE = -5;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream in;
+    private final byte[] buf;
+    private int pos;
+    private int limit;
+
+    private int lineNumber;
+    private int tokenCount;
+    private boolean gameOpen;
+    private int scoreX;
+    private int scoreO;
+
+    /**
+     * Constructs a `MoveReader` that reads games from the given stream.
+     *
+     * @param in The stream holding the scripted games.
+     */
+    public MoveReader(InputStream in) {
+        this.in = in;
+        this.buf = new byte[BUFFER_SIZE];
+        this.lineNumber = 1;
+    }
+
+    /**
+     * Constructs a `MoveReader` over games that are already in memory. The array is read in place.
+     *
+     * @param data The bytes holding the scripted games.
+     * @param length The number of bytes of `data` to read.
+     * @param firstLine The line number of the first line of `data`, used in `getLineNumber()`.
+     */
+    public MoveReader(byte[] data, int length, int firstLine) {
+        this.in = null;
+        this.buf = data;
+        this.limit = length;
+        this.lineNumber = firstLine;
+    }
+
+    /**
+     * Returns the next token of the input.
+     *
+     * @return a square index (0-63), or one of `END_OF_GAME`, `END_OF_INPUT`, `PASS` or `BAD_TOKEN`.
+     * @throws IOException if the underlying stream fails.
+     */
+    public int next() throws IOException {
+        while (true) {
+            int b = peek();
+            if (b < 0) {
+                if (gameOpen) {
+                    gameOpen = false;
+                    return END_OF_GAME;
+                }
+                return END_OF_INPUT;
+            }
+            if (b == '\n') {
+                pos++;
+                lineNumber++;
+                if (gameOpen) {
+                    gameOpen = false;
+                    return END_OF_GAME;
+                }
+                continue;
+            }
+            if (isSeparator(b)) {
+                pos++;
+                continue;
+            }
+            if (b == '#' && !gameOpen) {
+                skipLine();
+                continue;
+            }
+
+            if (!gameOpen) {
+                gameOpen = true;
+                tokenCount = 0;
+            }
+            tokenCount++;
+            return readToken();
+        }
+    }
+
+    /**
+     * Discards the rest of the current game, so that the next call to `next()`
+     * starts on the following line.
+     *
+     * @throws IOException if the underlying stream fails.
+     */
+    public void skipGame() throws IOException {
+        if (gameOpen) {
+            skipLine();
+        }
+    }
+
+    /**
+     * Returns the line number of the most recently read token (starting at 1).
+     *
+     * @return the current line number of the input.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Returns how many tokens have been read from the current game so far.
+     *
+     * @return the 1-based index of the most recent token within its game.
+     */
+    public int getTokenIndex() {
+        return tokenCount;
+    }
+
+    /**
+     * Returns X's count from the most recent `SCORE` token.
+     *
+     * @return the recorded number of X tokens.
+     */
+    public int getScoreX() {
+        return scoreX;
+    }
+
+    /**
+     * Returns O's count from the most recent `SCORE` token.
+     *
+     * @return the recorded number of O tokens.
+     */
+    public int getScoreO() {
+        return scoreO;
+    }
+
+    /**
+     * Converts a square index into algebraic notation, e.g. square 19 (row 2, column 3) becomes "d3".
+     *
+     * @param square The square index (0-63).
+     * @return the square in algebraic notation.
+     */
+    public static String toNotation(int square) {
+        return "" + (char) ('a' + square % 8) + (char) ('1' + square / 8);
+    }
+
+    /**
+     * Parses one token starting at the current position. The token is always consumed
+     * completely, even when it turns out to be malformed.
+     *
+     * @return the square index, `PASS`, `SCORE` or `BAD_TOKEN`.
+     */
+    private int readToken() throws IOException {
+        int first = read();
+        int result = BAD_TOKEN;
+
+        if ((first >= 'a' && first <= 'h') || (first >= 'A' && first <= 'H')) {
+            int col = (first | 0x20) - 'a';
+            int d = peek();
+            if (d >= '1' && d <= '8') {
+                pos++;
+                result = (d - '1') * 8 + col;
+            }
+        } else if (first >= '0' && first <= '7') {
+            if (peek() == ',') {
+                pos++;
+                int d = peek();
+                if (d >= '0' && d <= '7') {
+                    pos++;
+                    result = (first - '0') * 8 + (d - '0');
+                }
+            }
+        } else if (first == '-') {
+            if (peek() == '-') {
+                pos++;
+                result = PASS;
+            }
+        } else if (first == 'p' || first == 'P') {
+            result = matchRest("ass") ? PASS : BAD_TOKEN;
+        } else if (first == ':') {
+            int b = peek();
+            while (isSeparator(b)) {
+                pos++;
+                b = peek();
+            }
+            scoreX = readCount();
+            if (scoreX >= 0 && peek() == '-') {
+                pos++;
+                scoreO = readCount();
+                if (scoreO >= 0) {
+                    result = SCORE;
+                }
+            }
+        }
+
+        // Anything glued to the end of a token makes the whole token invalid
+        int b = peek();
+        if (b >= 0 && b != '\n' && !isSeparator(b)) {
+            while (b >= 0 && b != '\n' && !isSeparator(b)) {
+                pos++;
+                b = peek();
+            }
+            return BAD_TOKEN;
+        }
+        return result;
+    }
+
+    /**
+     * Consumes the given lowercase letters (case-insensitively) if they come next in the input.
+     */
+    private boolean matchRest(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            int b = peek();
+            if (b < 0 || (b | 0x20) != rest.charAt(i)) {
+                return false;
+            }
+            pos++;
+        }
+        return true;
+    }
+
+    /**
+     * Reads a decimal disc count of at most two digits.
+     *
+     * @return the count, or -1 if no digits come next.
+     */
+    private int readCount() throws IOException {
+        int value = -1;
+        for (int digits = 0; digits < 2; digits++) {
+            int b = peek();
+            if (b < '0' || b > '9') {
+                break;
+            }
+            pos++;
+            value = (value < 0 ? 0 : value * 10) + (b - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Skips everything up to (but not including) the next newline.
+     */
+    private void skipLine() throws IOException {
+        int b = peek();
+        while (b >= 0 && b != '\n') {
+            pos++;
+            b = peek();
+        }
+    }
+
+    private static boolean isSeparator(int b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private int read() throws IOException {
+        int b = peek();
+        if (b >= 0) {
+            pos++;
+        }
+        return b;
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit) {
+            if (in == null) {
+                return -1;
+            }
+            int n = in.read(buf, 0, buf.length);
+            if (n <= 0) {
+                return -1;
+            }
+            pos = 0;
+            limit = n;
+        }
+        return buf[pos] & 0xFF;
+    }
+}
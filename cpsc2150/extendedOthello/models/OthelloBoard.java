@@ -1,11 +1,21 @@
 package cpsc2150.extendedOthello.models;
 
+import cpsc2150.extendedOthello.metrics.EngineMetrics;
+
 import java.util.HashMap;
 
 /**
  * The `OthelloBoard` class implements the board for an Othello game. It extends the abstract class `AbsOthelloBoard`.
  * This class manages the state of the board, including placing tokens, flipping opponent's tokens, checking win conditions, and calculating scores.
  * It assumes the board is 8x8, and that the only valid tokens are 'X' and 'O'.
+ *
+ * Every board mirrors its cells in bitboards (see `Bitboards`) as they are written, so a move finds
+ * the discs to flip on each line through it with one table lookup (see `FlipTables`) instead of
+ * walking the rays cell by cell.
+ *
+ * A board can optionally track mobility. It then keeps both players' legal moves and the frontier
+ * (empty squares next to a disc) up to date once per change, so asking for moves or mobility is a
+ * constant-time lookup.
  */
 public class OthelloBoard extends AbsOthelloBoard {
 
@@ -18,13 +28,38 @@ public class OthelloBoard extends AbsOthelloBoard {
 
     private char[][] board;
 
+    private final boolean trackMobility;
+    private long xBits, oBits;
+    private long xMoves, oMoves;
+    private long frontier;
+    private boolean dirty;
+    private boolean applyingMove;
+    private int flipsThisMove;
+
     /**
      * Initializes the 8x8 board with default pieces in the middle of the board.
      * The initial setup has 'X' and 'O' in the middle four positions: (3,3), (4,4), (3,4), and (4,3).
      */
     public OthelloBoard() {
+        this(false);
+    }
+
+    /**
+     * Initializes the 8x8 board with default pieces in the middle of the board, optionally
+     * keeping the legal moves and frontier updated incrementally.
+     *
+     * @param trackMobility true to track legal moves and the frontier as the board changes.
+     */
+    public OthelloBoard(boolean trackMobility) {
+        this.trackMobility = trackMobility;
         board = new char[ROWS][COLUMNS];
+        reset();
+    }
 
+    /**
+     * Puts the board back into the starting position, so one board can be reused for many games.
+     */
+    public void reset() {
         // Initialize all cells to EMPTY
         for (int r = 0; r < ROWS; r++) {
             for (int c = 0; c < COLUMNS; c++) {
@@ -37,6 +72,24 @@ public class OthelloBoard extends AbsOthelloBoard {
         board[4][4] = PLAYER1;
         board[3][4] = PLAYER2;
         board[4][3] = PLAYER2;
+
+        xBits = bitsOf(PLAYER1);
+        oBits = bitsOf(PLAYER2);
+        if (trackMobility) {
+            xMoves = Bitboards.legalMoves(xBits, oBits);
+            oMoves = Bitboards.legalMoves(oBits, xBits);
+            frontier = around(xBits | oBits) & ~(xBits | oBits);
+            dirty = false;
+        }
+    }
+
+    /**
+     * Tells whether this board tracks legal moves and the frontier incrementally.
+     *
+     * @return true if the board was created with mobility tracking.
+     */
+    public boolean isTrackingMobility() {
+        return trackMobility;
     }
 
     /**
@@ -48,10 +101,17 @@ public class OthelloBoard extends AbsOthelloBoard {
      */
     @Override
     public void placeToken(char p, BoardPosition pos) {
-        board[pos.getRow()][pos.getColumn()] = p;
+        set(pos.getRow(), pos.getColumn(), p);
+
+        // Refresh the tracked mobility once for the whole move rather than after each direction
+        applyingMove = true;
+        flipsThisMove = 0;
         flipVertDirections(pos);
         flipHoriDirections(pos);
         flipDiagDirections(pos);
+        applyingMove = false;
+        refreshTracking();
+        EngineMetrics.moveApplied(flipsThisMove);
     }
 
     /**
@@ -72,33 +132,16 @@ public class OthelloBoard extends AbsOthelloBoard {
      */
     @Override
     public void flipVertDirections(BoardPosition startingPos) {
-        char currentPlayer = whatsAtPos(startingPos);
-        char opponent = (currentPlayer == PLAYER1) ? PLAYER2 : PLAYER1;
-
         int row = startingPos.getRow();
         int col = startingPos.getColumn();
+        char currentPlayer = board[row][col];
 
-        // Up direction
-        int r = row - 1;
-        while (r >= 0 && board[r][col] == opponent) {
-            r--;
-        }
-        if (r >= 0 && board[r][col] == currentPlayer) {
-            for (int i = r + 1; i < row; i++) {
-                board[i][col] = currentPlayer;
-            }
-        }
-
-        // Down direction
-        r = row + 1;
-        while (r < ROWS && board[r][col] == opponent) {
-            r++;
-        }
-        if (r < ROWS && board[r][col] == currentPlayer) {
-            for (int i = row + 1; i < r; i++) {
-                board[i][col] = currentPlayer;
-            }
+        // Bit k of the pattern is the cell in row k
+        for (int flips = FlipTables.column(discsOf(currentPlayer), opponentDiscsOf(currentPlayer), row, col);
+                flips != 0; flips &= flips - 1) {
+            set(Integer.numberOfTrailingZeros(flips), col, currentPlayer);
         }
+        refreshTracking();
     }
 
     /**
@@ -108,33 +151,16 @@ public class OthelloBoard extends AbsOthelloBoard {
      */
     @Override
     public void flipHoriDirections(BoardPosition startingPos) {
-        char currentPlayer = whatsAtPos(startingPos);
-        char opponent = (currentPlayer == PLAYER1) ? PLAYER2 : PLAYER1;
-
         int row = startingPos.getRow();
         int col = startingPos.getColumn();
+        char currentPlayer = board[row][col];
 
-        // Left direction
-        int c = col - 1;
-        while (c >= 0 && board[row][c] == opponent) {
-            c--;
-        }
-        if (c >= 0 && board[row][c] == currentPlayer) {
-            for (int i = c + 1; i < col; i++) {
-                board[row][i] = currentPlayer;
-            }
-        }
-
-        // Right direction
-        c = col + 1;
-        while (c < COLUMNS && board[row][c] == opponent) {
-            c++;
-        }
-        if (c < COLUMNS && board[row][c] == currentPlayer) {
-            for (int i = col + 1; i < c; i++) {
-                board[row][i] = currentPlayer;
-            }
+        // Bit k of the pattern is the cell in column k
+        for (int flips = FlipTables.row(discsOf(currentPlayer), opponentDiscsOf(currentPlayer), row, col);
+                flips != 0; flips &= flips - 1) {
+            set(row, Integer.numberOfTrailingZeros(flips), currentPlayer);
         }
+        refreshTracking();
     }
 
     /**
@@ -144,71 +170,25 @@ public class OthelloBoard extends AbsOthelloBoard {
      */
     @Override
     public void flipDiagDirections(BoardPosition startingPos) {
-        char currentPlayer = whatsAtPos(startingPos);
-        char opponent = (currentPlayer == PLAYER1) ? PLAYER2 : PLAYER1;
-
         int row = startingPos.getRow();
         int col = startingPos.getColumn();
-
-        // Top-left
-        int r = row - 1;
-        int c = col - 1;
-        while (r >= 0 && c >= 0 && board[r][c] == opponent) {
-            r--;
-            c--;
-        }
-        if (r >= 0 && c >= 0 && board[r][c] == currentPlayer) {
-            int i = row - 1;
-            int j = col - 1;
-            while (i > r && j > c) {
-                board[i--][j--] = currentPlayer;
-            }
+        char currentPlayer = board[row][col];
+        long player = discsOf(currentPlayer);
+        long opponent = opponentDiscsOf(currentPlayer);
+
+        // Both diagonal patterns are read before writing, so flips on one cannot affect the other.
+        // Bit k of each pattern is the cell in column k.
+        int diagonal = FlipTables.diagonal(player, opponent, row, col);
+        int antiDiagonal = FlipTables.antiDiagonal(player, opponent, row, col);
+        for (; diagonal != 0; diagonal &= diagonal - 1) {
+            int c = Integer.numberOfTrailingZeros(diagonal);
+            set(row - col + c, c, currentPlayer);
         }
-
-        // Top-right
-        r = row - 1;
-        c = col + 1;
-        while (r >= 0 && c < COLUMNS && board[r][c] == opponent) {
-            r--;
-            c++;
-        }
-        if (r >= 0 && c < COLUMNS && board[r][c] == currentPlayer) {
-            int i = row - 1;
-            int j = col + 1;
-            while (i > r && j < c) {
-                board[i--][j++] = currentPlayer;
-            }
-        }
-
-        // Bottom-left
-        r = row + 1;
-        c = col - 1;
-        while (r < ROWS && c >= 0 && board[r][c] == opponent) {
-            r++;
-            c--;
-        }
-        if (r < ROWS && c >= 0 && board[r][c] == currentPlayer) {
-            int i = row + 1;
-            int j = col - 1;
-            while (i < r && j > c) {
-                board[i++][j--] = currentPlayer;
-            }
-        }
-
-        // Bottom-right
-        r = row + 1;
-        c = col + 1;
-        while (r < ROWS && c < COLUMNS && board[r][c] == opponent) {
-            r++;
-            c++;
-        }
-        if (r < ROWS && c < COLUMNS && board[r][c] == currentPlayer) {
-            int i = row + 1;
-            int j = col + 1;
-            while (i < r && j < c) {
-                board[i++][j++] = currentPlayer;
-            }
+        for (; antiDiagonal != 0; antiDiagonal &= antiDiagonal - 1) {
+            int c = Integer.numberOfTrailingZeros(antiDiagonal);
+            set(row + col - c, c, currentPlayer);
         }
+        refreshTracking();
     }
 
     /**
@@ -240,6 +220,216 @@ public class OthelloBoard extends AbsOthelloBoard {
         return r >= 0 && r < ROWS && c >= 0 && c < COLUMNS && board[r][c] == EMPTY;
     }
 
+    /**
+     * Checks if placing the player's token at the position would flip at least one opponent token.
+     *
+     * @param p The player token ('X' or 'O').
+     * @param pos The position to check.
+     * @return true if the position is empty and the move flips a token in some direction; false otherwise.
+     */
+    @Override
+    public boolean isLegalMove(char p, BoardPosition pos) {
+        EngineMetrics.legalMoveChecked();
+        if (trackMobility && BoardPosition.isInBounds(pos.getRow(), pos.getColumn())) {
+            return (getLegalMoves(p) >>> (pos.getRow() * COLUMNS + pos.getColumn()) & 1) != 0;
+        }
+        return isPositionValid(pos) && flipsAny(p, pos.getRow(), pos.getColumn());
+    }
+
+    /**
+     * Checks if the player has a legal move on any empty square of the board.
+     *
+     * @param p The player token ('X' or 'O').
+     * @return true if at least one legal move exists for the player; false otherwise.
+     */
+    @Override
+    public boolean hasLegalMove(char p) {
+        EngineMetrics.legalMoveChecked();
+        if (trackMobility) {
+            return getLegalMoves(p) != 0;
+        }
+        for (int r = 0; r < ROWS; r++) {
+            for (int c = 0; c < COLUMNS; c++) {
+                if (board[r][c] == EMPTY && flipsAny(p, r, c)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts the legal moves of a player. This is a constant-time lookup when mobility is tracked.
+     *
+     * @param p The player token ('X' or 'O').
+     * @return the number of squares where the player can legally move.
+     */
+    @Override
+    public int getMobility(char p) {
+        return Long.bitCount(getLegalMoves(p));
+    }
+
+    /**
+     * Returns the legal moves of a player as a bitboard (see `Bitboards`).
+     *
+     * @param p The player token ('X' or 'O').
+     * @return a bitboard with a bit set for every legal move of the player.
+     */
+    public long getLegalMoves(char p) {
+        if (trackMobility) {
+            return (p == PLAYER1) ? xMoves : oMoves;
+        }
+        return (p == PLAYER1) ? Bitboards.legalMoves(xBits, oBits) : Bitboards.legalMoves(oBits, xBits);
+    }
+
+    /**
+     * Returns a player's discs as a bitboard (see `Bitboards`). This is a constant-time lookup.
+     *
+     * @param p The player token ('X' or 'O').
+     * @return a bitboard with a bit set for every square the player occupies.
+     */
+    public long getBitboard(char p) {
+        return (p == PLAYER1) ? xBits : oBits;
+    }
+
+    /**
+     * Replaces the whole board with the given discs, without flipping anything.
+     *
+     * @param xDiscs The bitboard of the squares holding 'X'.
+     * @param oDiscs The bitboard of the squares holding 'O'.
+     *
+     * @pre (xDiscs & oDiscs) == 0
+     */
+    public void setBitboards(long xDiscs, long oDiscs) {
+        for (int r = 0; r < ROWS; r++) {
+            for (int c = 0; c < COLUMNS; c++) {
+                int sq = r * COLUMNS + c;
+                if ((xDiscs >>> sq & 1) != 0) {
+                    set(r, c, PLAYER1);
+                } else if ((oDiscs >>> sq & 1) != 0) {
+                    set(r, c, PLAYER2);
+                } else {
+                    set(r, c, EMPTY);
+                }
+            }
+        }
+        refreshTracking();
+    }
+
+    /**
+     * Returns the frontier: the empty squares next to at least one disc.
+     *
+     * @return a bitboard of the frontier squares.
+     */
+    public long getFrontier() {
+        if (trackMobility) {
+            return frontier;
+        }
+        long occupied = xBits | oBits;
+        return around(occupied) & ~occupied;
+    }
+
+    /**
+     * Writes one cell and its bit in the bitboards, recording the change when mobility is tracked.
+     */
+    private void set(int r, int c, char p) {
+        board[r][c] = p;
+        long bit = 1L << (r * COLUMNS + c);
+        xBits = (p == PLAYER1) ? xBits | bit : xBits & ~bit;
+        oBits = (p == PLAYER2) ? oBits | bit : oBits & ~bit;
+        if (EngineMetrics.ENABLED && applyingMove) {
+            flipsThisMove++;
+        }
+        if (trackMobility) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Returns the bitboard of the cells holding `p`, which may also be `EMPTY`.
+     */
+    private long discsOf(char p) {
+        if (p == PLAYER1) return xBits;
+        if (p == PLAYER2) return oBits;
+        return ~(xBits | oBits);
+    }
+
+    /**
+     * Returns the bitboard of the cells the flip methods treat as the opponent of `p`:
+     * 'O' for 'X', and 'X' for anything else.
+     */
+    private long opponentDiscsOf(char p) {
+        return (p == PLAYER1) ? oBits : xBits;
+    }
+
+    /**
+     * Brings the tracked moves and frontier up to date after cells have changed.
+     * The legal moves are refilled for all squares at once with bitboard shifts, which is cheaper
+     * than re-checking the individual squares on the lines through each changed cell.
+     */
+    private void refreshTracking() {
+        if (!trackMobility || applyingMove || !dirty) {
+            return;
+        }
+        long occupied = xBits | oBits;
+        xMoves = Bitboards.legalMoves(xBits, oBits);
+        oMoves = Bitboards.legalMoves(oBits, xBits);
+        frontier = around(occupied) & ~occupied;
+        dirty = false;
+    }
+
+    /**
+     * Returns every square next to at least one square of the given bitboard.
+     */
+    private static long around(long bits) {
+        long result = 0;
+        for (int dir = 0; dir < 8; dir++) {
+            result |= Bitboards.shift(bits, dir);
+        }
+        return result;
+    }
+
+    /**
+     * Builds the bitboard of a player's cells by scanning the board.
+     */
+    private long bitsOf(char p) {
+        long bits = 0;
+        for (int r = 0; r < ROWS; r++) {
+            for (int c = 0; c < COLUMNS; c++) {
+                if (board[r][c] == p) {
+                    bits |= 1L << (r * COLUMNS + c);
+                }
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Checks all eight directions from an empty square for a run of opponent tokens
+     * closed off by one of the player's tokens.
+     */
+    private boolean flipsAny(char p, int row, int col) {
+        char opponent = (p == PLAYER1) ? PLAYER2 : PLAYER1;
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                if (dr == 0 && dc == 0) continue;
+
+                int r = row + dr;
+                int c = col + dc;
+                int run = 0;
+                while (r >= 0 && r < ROWS && c >= 0 && c < COLUMNS && board[r][c] == opponent) {
+                    r += dr;
+                    c += dc;
+                    run++;
+                }
+                if (run > 0 && r >= 0 && r < ROWS && c >= 0 && c < COLUMNS && board[r][c] == p) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Forcefully places a token at the specified position without flipping any opponent tokens.
      * This is used for testing or initializing the board.
@@ -249,7 +439,8 @@ public class OthelloBoard extends AbsOthelloBoard {
      */
     @Override
     public void forcePlace(char p, BoardPosition pos) {
-        board[pos.getRow()][pos.getColumn()] = p;
+        set(pos.getRow(), pos.getColumn(), p);
+        refreshTracking();
     }
 
     /**
@@ -0,0 +1,302 @@
+package cpsc2150.extendedOthello.models;
+
+/**
+ * The `Position` class is an immutable snapshot of an Othello game: the discs of both players
+ * as bitboards (see `Bitboards`) plus the player to move. Since a `Position` never changes,
+ * it can be shared between threads, used as a map key or cached without locks or copies.
+ *
+ * Playing a move returns a new `Position` and leaves the original untouched.
+ */
+public final class Position {
+
+    private static final Position INITIAL = new Position(0x0000001008000000L, 0x0000000810000000L,
+            OthelloBoard.PLAYER1);
+
+    private final long x;
+    private final long o;
+    private final char toMove;
+
+    /**
+     * Constructs a position from the discs of both players.
+     *
+     * @param x The bitboard of 'X' discs.
+     * @param o The bitboard of 'O' discs.
+     * @param toMove The player to move ('X' or 'O').
+     * @throws IllegalArgumentException if a square holds both colors or `toMove` is not a player.
+     */
+    public Position(long x, long o, char toMove) {
+        if ((x & o) != 0) {
+            throw new IllegalArgumentException("A square cannot hold both X and O");
+        }
+        if (toMove != OthelloBoard.PLAYER1 && toMove != OthelloBoard.PLAYER2) {
+            throw new IllegalArgumentException("The player to move must be X or O");
+        }
+        this.x = x;
+        this.o = o;
+        this.toMove = toMove;
+    }
+
+    /**
+     * Returns the starting position of a game, with 'X' to move.
+     *
+     * @return the initial position.
+     */
+    public static Position initial() {
+        return INITIAL;
+    }
+
+    /**
+     * Takes a snapshot of a board.
+     *
+     * @param board The board to copy.
+     * @param toMove The player to move ('X' or 'O').
+     * @return a position holding the board's discs.
+     */
+    public static Position fromBoard(IOthelloBoard board, char toMove) {
+        if (board instanceof OthelloBoard) {
+            OthelloBoard ob = (OthelloBoard) board;
+            return new Position(ob.getBitboard(OthelloBoard.PLAYER1), ob.getBitboard(OthelloBoard.PLAYER2), toMove);
+        }
+        return new Position(Bitboards.fromBoard(board, OthelloBoard.PLAYER1),
+                Bitboards.fromBoard(board, OthelloBoard.PLAYER2), toMove);
+    }
+
+    /**
+     * Reads a position written as one line: the 64 cells in `getBoardCopy()` order (row by row),
+     * each 'X', 'O' or an empty mark (' ', '-' or '.'), then whitespace and the player to move.
+     * This is the format of `toString`. Whitespace after the player to move is ignored.
+     *
+     * @param line The text of the position.
+     * @return the position.
+     * @throws IllegalArgumentException if the line is not in this format.
+     */
+    public static Position parse(CharSequence line) {
+        if (line.length() < 66) {
+            throw new IllegalArgumentException("Expected 64 cells and the player to move");
+        }
+        long xs = 0, os = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            char c = line.charAt(sq);
+            if (c == OthelloBoard.PLAYER1) {
+                xs |= 1L << sq;
+            } else if (c == OthelloBoard.PLAYER2) {
+                os |= 1L << sq;
+            } else if (c != ' ' && c != '-' && c != '.') {
+                throw new IllegalArgumentException("Bad cell '" + c + "' at " + MoveReader.toNotation(sq));
+            }
+        }
+        int i = 64;
+        while (i < line.length() && Character.isWhitespace(line.charAt(i))) {
+            i++;
+        }
+        if (i == 64 || i == line.length()) {
+            throw new IllegalArgumentException("Expected whitespace and the player to move after the cells");
+        }
+        char toMove = line.charAt(i++);
+        while (i < line.length()) {
+            if (!Character.isWhitespace(line.charAt(i++))) {
+                throw new IllegalArgumentException("Unexpected text after the player to move");
+            }
+        }
+        return new Position(xs, os, toMove);
+    }
+
+    /**
+     * Creates a new board holding this position's discs.
+     *
+     * @return a new `OthelloBoard`.
+     */
+    public OthelloBoard toBoard() {
+        OthelloBoard board = new OthelloBoard();
+        board.setBitboards(x, o);
+        return board;
+    }
+
+    /**
+     * Returns the bitboard of a player's discs.
+     *
+     * @param p The player token ('X' or 'O').
+     * @return the player's discs.
+     */
+    public long getDiscs(char p) {
+        return (p == OthelloBoard.PLAYER1) ? x : o;
+    }
+
+    /**
+     * Returns the discs of the player to move.
+     *
+     * @return the bitboard of the player to move.
+     */
+    public long getPlayerDiscs() {
+        return (toMove == OthelloBoard.PLAYER1) ? x : o;
+    }
+
+    /**
+     * Returns the discs of the player who is not to move.
+     *
+     * @return the bitboard of the opponent.
+     */
+    public long getOpponentDiscs() {
+        return (toMove == OthelloBoard.PLAYER1) ? o : x;
+    }
+
+    /**
+     * Returns the player to move.
+     *
+     * @return 'X' or 'O'.
+     */
+    public char getToMove() {
+        return toMove;
+    }
+
+    /**
+     * Returns the token on a square.
+     *
+     * @param square The square (row * 8 + col).
+     * @return 'X', 'O' or ' '.
+     */
+    public char whatsAt(int square) {
+        if ((x >>> square & 1) != 0) return OthelloBoard.PLAYER1;
+        if ((o >>> square & 1) != 0) return OthelloBoard.PLAYER2;
+        return OthelloBoard.EMPTY;
+    }
+
+    /**
+     * Returns the legal moves of the player to move.
+     *
+     * @return a bitboard of the legal moves.
+     */
+    public long legalMoves() {
+        return Bitboards.legalMoves(getPlayerDiscs(), getOpponentDiscs());
+    }
+
+    /**
+     * Tells whether neither player can move.
+     *
+     * @return true if the game is over.
+     */
+    public boolean isGameOver() {
+        return legalMoves() == 0 && Bitboards.legalMoves(getOpponentDiscs(), getPlayerDiscs()) == 0;
+    }
+
+    /**
+     * Plays a move for the player to move.
+     *
+     * @param square The square of the move (row * 8 + col).
+     * @return the position after the move, with the other player to move.
+     * @throws IllegalArgumentException if the move is not legal.
+     */
+    public Position play(int square) {
+        if (square < 0 || square >= 64) {
+            throw new IllegalArgumentException("Square out of bounds: " + square);
+        }
+        long player = getPlayerDiscs();
+        long opponent = getOpponentDiscs();
+        long flipped = Bitboards.flips(player, opponent, square);
+        if (flipped == 0) {
+            throw new IllegalArgumentException("Illegal move for " + toMove + ": " + MoveReader.toNotation(square));
+        }
+        player |= flipped | (1L << square);
+        opponent &= ~flipped;
+        return (toMove == OthelloBoard.PLAYER1)
+                ? new Position(player, opponent, OthelloBoard.PLAYER2)
+                : new Position(opponent, player, OthelloBoard.PLAYER1);
+    }
+
+    /**
+     * Plays a move for the player to move.
+     *
+     * @param pos The position of the move.
+     * @return the position after the move, with the other player to move.
+     * @throws IllegalArgumentException if the move is not legal.
+     */
+    public Position play(BoardPosition pos) {
+        if (!BoardPosition.isInBounds(pos.getRow(), pos.getColumn())) {
+            throw new IllegalArgumentException("Position out of bounds: " + pos);
+        }
+        return play(pos.getRow() * 8 + pos.getColumn());
+    }
+
+    /**
+     * Passes the turn to the other player without changing the discs.
+     *
+     * @return the same discs with the other player to move.
+     */
+    public Position pass() {
+        return new Position(x, o, (toMove == OthelloBoard.PLAYER1) ? OthelloBoard.PLAYER2 : OthelloBoard.PLAYER1);
+    }
+
+    /**
+     * Compares this position to another object for equality.
+     * Two positions are equal if they have the same discs and the same player to move.
+     *
+     * @param obj The object to compare to.
+     * @return true if the object is an equal `Position`; false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Position)) return false;
+        Position other = (Position) obj;
+        return x == other.x && o == other.o && toMove == other.toMove;
+    }
+
+    /**
+     * Returns a hash code for this position, mixing all bits of both bitboards.
+     *
+     * @return a hash code for this position.
+     */
+    @Override
+    public int hashCode() {
+        long h = x * 0x9E3779B97F4A7C15L + o;
+        h = (h ^ (h >>> 29)) * 0xBF58476D1CE4E5B9L + toMove;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Returns a 64-bit hash of this position that is the same in every run, for use as a key in
+     * transposition tables and persistent caches.
+     *
+     * @return the hash of the mover's and opponent's discs.
+     */
+    public long hash64() {
+        return hash64(getPlayerDiscs(), getOpponentDiscs());
+    }
+
+    /**
+     * Returns the 64-bit hash of a position given as the discs of the player to move and of the
+     * opponent. Swapping the two bitboards (the same discs with the other player to move) gives a
+     * different hash.
+     *
+     * @param player The discs of the player to move.
+     * @param opponent The discs of the other player.
+     * @return the hash, mixed with a murmur3-style finalizer.
+     */
+    public static long hash64(long player, long opponent) {
+        long h = player * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(opponent * 0xC2B2AE3D27D4EB4FL, 31);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Returns the position as one line: the 64 cells row by row, using '-' for empty,
+     * then a space and the player to move.
+     *
+     * @return a string such as "---...XO...--- X".
+     */
+    @Override
+    public String toString() {
+        char[] chars = new char[66];
+        for (int sq = 0; sq < 64; sq++) {
+            char c = whatsAt(sq);
+            chars[sq] = (c == OthelloBoard.EMPTY) ? '-' : c;
+        }
+        chars[64] = ' ';
+        chars[65] = toMove;
+        return new String(chars);
+    }
+}
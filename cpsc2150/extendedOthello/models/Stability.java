@@ -0,0 +1,149 @@
+package cpsc2150.extendedOthello.models;
+
+import java.util.Arrays;
+
+/**
+ * The `Stability` class finds stable discs: discs that can never be flipped for the rest of the game.
+ * A disc can only be flipped along one of the four lines through it (horizontal, vertical and the
+ * two diagonals), so it is stable when, on each of those lines, either the line is completely
+ * filled, the disc sits on the board edge, or its neighbor on that line is a stable disc of the
+ * same color.
+ *
+ * The rule is applied to whole bitboards at once (see `Bitboards`) and repeated until no more
+ * discs are added, which floods stability out from the corners and from filled lines.
+ * The result is a safe under-estimate: every disc reported is stable.
+ */
+public final class Stability {
+
+    private static final long RANK_1 = 0x00000000000000FFL;
+    private static final long RANK_8 = 0xFF00000000000000L;
+
+    /** Squares that have no neighbor on one side of each axis, in the order horizontal, vertical, diagonal, anti-diagonal. */
+    private static final long[] AXIS_EDGES = {
+            Bitboards.FILE_A | Bitboards.FILE_H,
+            RANK_1 | RANK_8,
+            Bitboards.FILE_A | Bitboards.FILE_H | RANK_1 | RANK_8,
+            Bitboards.FILE_A | Bitboards.FILE_H | RANK_1 | RANK_8
+    };
+
+    /** The two `Bitboards.shift` directions that run along each axis. */
+    private static final int[][] AXIS_DIRECTIONS = {{0, 1}, {2, 3}, {4, 7}, {5, 6}};
+
+    /** Every line of the board on each axis, used to find the filled ones. */
+    private static final long[][] AXIS_LINES = new long[4][];
+
+    static {
+        for (int axis = 0; axis < 4; axis++) {
+            int forward = AXIS_DIRECTIONS[axis][0];
+            int backward = AXIS_DIRECTIONS[axis][1];
+            long[] lines = new long[15];
+            int count = 0;
+            // Each line starts at a square with no neighbor behind it; walk forward from there
+            for (int sq = 0; sq < 64; sq++) {
+                long start = 1L << sq;
+                if (Bitboards.shift(start, backward) != 0) {
+                    continue;
+                }
+                long line = 0;
+                for (long cell = start; cell != 0; cell = Bitboards.shift(cell, forward)) {
+                    line |= cell;
+                }
+                lines[count++] = line;
+            }
+            AXIS_LINES[axis] = Arrays.copyOf(lines, count);
+        }
+    }
+
+    private Stability() {
+    }
+
+    /**
+     * Computes the stable discs of one side.
+     *
+     * @param player The discs of the side to analyze.
+     * @param opponent The discs of the other side.
+     * @return a bitboard of the player's discs that can never be flipped.
+     */
+    public static long stableDiscs(long player, long opponent) {
+        long filled = player | opponent;
+
+        // Per axis, the squares that cannot be flipped along it because of full lines or edges
+        long safeH = fullLines(filled, 0) | AXIS_EDGES[0];
+        long safeV = fullLines(filled, 1) | AXIS_EDGES[1];
+        long safeD = fullLines(filled, 2) | AXIS_EDGES[2];
+        long safeA = fullLines(filled, 3) | AXIS_EDGES[3];
+
+        long stable = 0;
+        while (true) {
+            long next = player
+                    & (safeH | Bitboards.shift(stable, 0) | Bitboards.shift(stable, 1))
+                    & (safeV | Bitboards.shift(stable, 2) | Bitboards.shift(stable, 3))
+                    & (safeD | Bitboards.shift(stable, 4) | Bitboards.shift(stable, 7))
+                    & (safeA | Bitboards.shift(stable, 5) | Bitboards.shift(stable, 6));
+            if (next == stable) {
+                return stable;
+            }
+            stable = next;
+        }
+    }
+
+    /**
+     * Returns the union of the completely filled lines on one axis.
+     */
+    private static long fullLines(long filled, int axis) {
+        long full = 0;
+        for (long line : AXIS_LINES[axis]) {
+            if ((filled & line) == line) {
+                full |= line;
+            }
+        }
+        return full;
+    }
+
+    /**
+     * Computes the stable discs of a player on a board.
+     *
+     * @param board The board to analyze.
+     * @param p The player token ('X' or 'O').
+     * @return a bitboard of the player's discs that can never be flipped.
+     */
+    public static long stableDiscs(IOthelloBoard board, char p) {
+        char o = (p == OthelloBoard.PLAYER1) ? OthelloBoard.PLAYER2 : OthelloBoard.PLAYER1;
+        return stableDiscs(Bitboards.fromBoard(board, p), Bitboards.fromBoard(board, o));
+    }
+
+    /**
+     * Counts the stable discs of one side.
+     *
+     * @param player The discs of the side to analyze.
+     * @param opponent The discs of the other side.
+     * @return the number of the player's discs that can never be flipped.
+     */
+    public static int stableCount(long player, long opponent) {
+        return Long.bitCount(stableDiscs(player, opponent));
+    }
+
+    /**
+     * Returns the best final disc difference (player minus opponent) the player can still reach.
+     * The opponent's stable discs are theirs at the end of the game whatever happens.
+     *
+     * @param player The discs of the side to analyze.
+     * @param opponent The discs of the other side.
+     * @return an upper bound on the final disc difference, from -64 to 64.
+     */
+    public static int scoreUpperBound(long player, long opponent) {
+        return 64 - 2 * stableCount(opponent, player);
+    }
+
+    /**
+     * Returns the worst final disc difference (player minus opponent) the player can end up with.
+     * The player's stable discs stay theirs at the end of the game whatever happens.
+     *
+     * @param player The discs of the side to analyze.
+     * @param opponent The discs of the other side.
+     * @return a lower bound on the final disc difference, from -64 to 64.
+     */
+    public static int scoreLowerBound(long player, long opponent) {
+        return 2 * stableCount(player, opponent) - 64;
+    }
+}
@@ -0,0 +1,343 @@
+package cpsc2150.extendedOthello.server;
+
+import cpsc2150.extendedOthello.metrics.EngineMetrics;
+import cpsc2150.extendedOthello.models.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * The `GameServer` class hosts many Othello games at once over a line-based TCP protocol on localhost.
+ * Every connection is one session holding one board, and all sessions are served by a single
+ * `Selector` loop, so thousands of idle or slow clients cost no threads.
+ *
+ * Commands (one per line) and their replies:
+ * <ul>
+ *   <li>`NEW` starts a new game: `OK X <moves>`</li>
+ *   <li>`MOVE <move>` plays a move for the player to move, written as in `MoveReader` ("d3" or "2,3"):
+ *       `OK <next player> <moves>` or, when the game is over, `END <X count> <O count>`</li>
+ *   <li>`BOARD` returns the 64 cells row by row, using '.' for empty: `BOARD <cells>`</li>
+ *   <li>`QUIT` closes the connection</li>
+ * </ul>
+ * `<moves>` is the legal-move bitboard of the next player (see `Bitboards`) in hexadecimal.
+ * A player without a legal move is skipped by the server. Any invalid command or move gets
+ * `ERR <reason>` and leaves the game unchanged. Anything sent after `QUIT` is ignored.
+ *
+ * The server stops reading from a client while replies to it are still waiting to be sent, so a
+ * client that sends commands but never reads the replies holds up only its own session, and its
+ * pending output never exceeds the replies to one input buffer of commands. A command that fails
+ * unexpectedly closes its own session and leaves the others running.
+ */
+public class GameServer {
+
+    /** The port used when none is given on the command line. */
+    public static final int DEFAULT_PORT = 2150;
+
+    private static final int MAX_LINE = 128;
+
+    /**
+     * The state of one connection: its game and its pending input and output.
+     */
+    private static class Session {
+        final ByteBuffer in = ByteBuffer.allocate(MAX_LINE);
+        ByteBuffer out = ByteBuffer.allocate(MAX_LINE);
+        OthelloBoard board;
+        char toMove;
+        long startedAt;
+        boolean closing;
+    }
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private volatile boolean running = true;
+
+    /**
+     * Opens the server socket on the loopback interface.
+     *
+     * @param port The port to listen on; 0 picks a free port.
+     * @throws IOException if the socket cannot be opened.
+     */
+    public GameServer(int port) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the local port.
+     * @throws IOException if the socket is closed.
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Starts the server on the given port (2150 by default) and serves until the process is stopped.
+     *
+     * @param args Command line arguments: `[port]`.
+     */
+    public static void main(String[] args) {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        try {
+            GameServer gameServer = new GameServer(port);
+            System.out.println("Othello server listening on localhost:" + gameServer.getPort());
+            gameServer.serve();
+        } catch (IOException e) {
+            System.err.println("Server failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs the selector loop on the calling thread until `stop()` is called.
+     *
+     * @throws IOException if the selector fails.
+     */
+    public void serve() throws IOException {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            read(key);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            write(key);
+                        }
+                    } catch (IOException e) {
+                        close(key);
+                    } catch (RuntimeException e) {
+                        // A bug in one session must not take down the others
+                        System.err.println("Closing session after unexpected error: " + e);
+                        close(key);
+                    }
+                }
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        }
+    }
+
+    /**
+     * Stops the selector loop; `serve()` returns after closing every connection.
+     */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.register(selector, SelectionKey.OP_READ, new Session());
+        }
+    }
+
+    /**
+     * Reads what the client sent and answers every complete line.
+     */
+    private void read(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Session session = (Session) key.attachment();
+
+        if (channel.read(session.in) < 0) {
+            close(key);
+            return;
+        }
+
+        ByteBuffer in = session.in;
+        in.flip();
+        int start = in.position();
+        for (int i = start; i < in.limit() && !session.closing; i++) {
+            if (in.get(i) == '\n') {
+                int end = (i > start && in.get(i - 1) == '\r') ? i - 1 : i;
+                handle(session, in, start, end);
+                start = i + 1;
+            }
+        }
+        in.position(start);
+        in.compact();
+
+        if (session.closing) {
+            // Nothing after QUIT is run
+            in.clear();
+        } else if (!in.hasRemaining()) {
+            reply(session, "ERR line too long");
+            session.closing = true;
+            in.clear();
+        }
+        flush(key);
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        flush(key);
+    }
+
+    /**
+     * Sends as much pending output as the socket takes. When the socket is full, waits for OP_WRITE
+     * and stops reading new commands until the rest has been sent.
+     */
+    private void flush(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Session session = (Session) key.attachment();
+        session.out.flip();
+        channel.write(session.out);
+        boolean pending = session.out.hasRemaining();
+        session.out.compact();
+
+        if (pending) {
+            key.interestOps(SelectionKey.OP_WRITE);
+        } else if (session.closing) {
+            close(key);
+        } else {
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // Nothing left to do for a connection that is already broken
+        }
+    }
+
+    /**
+     * Runs one command line, given as bytes [start, end) of the input buffer.
+     */
+    private void handle(Session session, ByteBuffer in, int start, int end) {
+        String command = readAscii(in, start, end);
+
+        if (command.equals("NEW")) {
+            if (session.board == null) {
+                session.board = new OthelloBoard(true);
+            } else {
+                session.board.reset();
+            }
+            session.toMove = OthelloBoard.PLAYER1;
+            session.startedAt = System.nanoTime();
+            reply(session, "OK X " + Long.toHexString(session.board.getLegalMoves(session.toMove)));
+        } else if (command.startsWith("MOVE ")) {
+            playMove(session, command.substring(5).trim());
+        } else if (command.equals("BOARD")) {
+            if (session.board == null) {
+                reply(session, "ERR no game; send NEW first");
+                return;
+            }
+            StringBuilder sb = new StringBuilder("BOARD ");
+            for (int sq = 0; sq < 64; sq++) {
+                char c = session.board.whatsAtPos(BoardPosition.of(sq));
+                sb.append(c == OthelloBoard.EMPTY ? '.' : c);
+            }
+            reply(session, sb.toString());
+        } else if (command.equals("QUIT")) {
+            reply(session, "BYE");
+            session.closing = true;
+        } else {
+            reply(session, "ERR unknown command");
+        }
+    }
+
+    /**
+     * Validates and plays a move, then skips the next player if they have to pass.
+     */
+    private void playMove(Session session, String text) {
+        OthelloBoard board = session.board;
+        if (board == null) {
+            reply(session, "ERR no game; send NEW first");
+            return;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        int square;
+        try {
+            MoveReader reader = new MoveReader(bytes, bytes.length, 1);
+            square = reader.next();
+            if (square >= 0 && reader.next() != MoveReader.END_OF_GAME) {
+                square = MoveReader.BAD_TOKEN;
+            }
+        } catch (IOException e) {
+            square = MoveReader.BAD_TOKEN;
+        }
+        if (square < 0) {
+            reply(session, "ERR unreadable move");
+            return;
+        }
+
+        char player = session.toMove;
+        char opponent = (player == OthelloBoard.PLAYER1) ? OthelloBoard.PLAYER2 : OthelloBoard.PLAYER1;
+        if (!board.hasLegalMove(player) && !board.hasLegalMove(opponent)) {
+            reply(session, "ERR game is over");
+            return;
+        }
+        if (!board.isLegalMove(player, BoardPosition.of(square))) {
+            reply(session, "ERR illegal move for " + player);
+            return;
+        }
+        board.placeToken(player, BoardPosition.of(square));
+
+        if (board.hasLegalMove(opponent)) {
+            session.toMove = opponent;
+        } else if (!board.hasLegalMove(player)) {
+            EngineMetrics.gameCompleted(System.nanoTime() - session.startedAt);
+            int[] score = board.getScore();
+            reply(session, "END " + score[0] + " " + score[1]);
+            return;
+        }
+        reply(session, "OK " + session.toMove + " " + Long.toHexString(board.getLegalMoves(session.toMove)));
+    }
+
+    /**
+     * Queues a reply line, growing the output buffer if needed. The buffer stays small because no
+     * new commands are read while output is pending.
+     */
+    private static void reply(Session session, String line) {
+        int needed = line.length() + 1;
+        if (session.out.remaining() < needed) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(session.out.capacity() * 2, session.out.position() + needed));
+            session.out.flip();
+            bigger.put(session.out);
+            session.out = bigger;
+        }
+        for (int i = 0; i < line.length(); i++) {
+            session.out.put((byte) line.charAt(i));
+        }
+        session.out.put((byte) '\n');
+    }
+
+    private static String readAscii(ByteBuffer in, int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = (char) (in.get(i) & 0xFF);
+        }
+        return new String(chars).trim();
+    }
+}
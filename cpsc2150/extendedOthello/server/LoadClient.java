@@ -0,0 +1,174 @@
+package cpsc2150.extendedOthello.server;
+
+import cpsc2150.extendedOthello.models.MoveReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The `LoadClient` class drives a `GameServer` with many concurrent sessions and reports how it held up.
+ * Each client thread repeatedly connects, plays a full game of random legal moves (taken from the
+ * legal-move masks the server replies with) and disconnects. The round-trip time of every `MOVE`
+ * is recorded, and the run ends with the p50/p99 move latency and the completed sessions per second.
+ */
+public class LoadClient {
+
+    /**
+     * Latencies recorded by one client thread, in nanoseconds.
+     */
+    private static class Recorder {
+        long[] latencies = new long[4096];
+        int count;
+        int errors;
+
+        void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args Command line arguments: `[--port p] [--clients n] [--games g]`, defaulting to
+     *             port 2150, 100 concurrent clients and 10000 games in total.
+     * @throws InterruptedException if interrupted while waiting for the clients.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int port = GameServer.DEFAULT_PORT;
+        int clients = 100;
+        int games = 10000;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--clients":
+                    clients = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--games":
+                    games = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(1);
+            }
+        }
+        run(port, clients, games);
+    }
+
+    /**
+     * Plays the given number of games against a running server and prints the results.
+     *
+     * @param port The server's port on localhost.
+     * @param clients The number of concurrent client threads.
+     * @param games The total number of games to play.
+     * @throws InterruptedException if interrupted while waiting for the clients.
+     */
+    public static void run(int port, int clients, int games) throws InterruptedException {
+        AtomicInteger remaining = new AtomicInteger(games);
+        List<Recorder> recorders = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            Recorder recorder = new Recorder();
+            Random rnd = new Random(i);
+            recorders.add(recorder);
+            Thread t = new Thread(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    try {
+                        playGame(port, rnd, recorder);
+                    } catch (IOException e) {
+                        recorder.errors++;
+                    }
+                }
+            }, "load-client-" + i);
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int total = 0;
+        int errors = 0;
+        for (Recorder r : recorders) {
+            total += r.count;
+            errors += r.errors;
+        }
+        long[] all = new long[total];
+        int at = 0;
+        for (Recorder r : recorders) {
+            System.arraycopy(r.latencies, 0, all, at, r.count);
+            at += r.count;
+        }
+        Arrays.sort(all);
+
+        System.out.printf("Sessions: %d in %.2f s (%.0f sessions/s), %d failed%n",
+                games - errors, seconds, (games - errors) / seconds, errors);
+        System.out.printf("Moves: %d (%.0f moves/s)%n", total, total / seconds);
+        if (total > 0) {
+            System.out.printf("Move latency: p50 %.1f us | p99 %.1f us | max %.1f us%n",
+                    percentile(all, 0.50) / 1e3, percentile(all, 0.99) / 1e3, all[total - 1] / 1e3);
+        }
+    }
+
+    /**
+     * Plays one game on a fresh connection.
+     */
+    private static void playGame(int port, Random rnd, Recorder recorder) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            OutputStream out = socket.getOutputStream();
+
+            String reply = send(out, in, "NEW");
+            while (reply.startsWith("OK ")) {
+                long moves = Long.parseUnsignedLong(reply.substring(5), 16);
+                int skip = rnd.nextInt(Long.bitCount(moves));
+                for (int i = 0; i < skip; i++) {
+                    moves &= moves - 1;
+                }
+                String move = "MOVE " + MoveReader.toNotation(Long.numberOfTrailingZeros(moves));
+
+                long sent = System.nanoTime();
+                reply = send(out, in, move);
+                recorder.record(System.nanoTime() - sent);
+            }
+            if (!reply.startsWith("END ")) {
+                throw new IOException("Unexpected reply: " + reply);
+            }
+            send(out, in, "QUIT");
+        }
+    }
+
+    private static String send(OutputStream out, BufferedReader in, String line) throws IOException {
+        out.write((line + "\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        String reply = in.readLine();
+        if (reply == null) {
+            throw new IOException("Server closed the connection");
+        }
+        return reply;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
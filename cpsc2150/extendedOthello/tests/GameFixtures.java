@@ -0,0 +1,161 @@
+package cpsc2150.extendedOthello.tests;
+
+import cpsc2150.extendedOthello.models.Bitboards;
+import cpsc2150.extendedOthello.models.BoardPosition;
+import cpsc2150.extendedOthello.models.MoveReader;
+import cpsc2150.extendedOthello.models.OthelloBoard;
+import cpsc2150.extendedOthello.models.Position;
+
+import java.util.Random;
+
+/**
+ * Helper methods shared by the tests for building random and scripted games and positions, and for
+ * scoring endgames exactly.
+ */
+final class GameFixtures {
+
+    private GameFixtures() {
+    }
+
+    /**
+     * Plays a whole game, always taking the lowest legal square.
+     *
+     * @param passes true to record passes as "pass"; false to leave them out.
+     * @return the game in `MoveReader` format, without the final score.
+     */
+    static String fullGame(boolean passes) {
+        StringBuilder game = new StringBuilder();
+        Position pos = Position.initial();
+        while (!pos.isGameOver()) {
+            long moves = pos.legalMoves();
+            if (moves == 0) {
+                if (passes) {
+                    game.append("pass ");
+                }
+                pos = pos.pass();
+                continue;
+            }
+            int sq = Long.numberOfTrailingZeros(moves);
+            game.append(MoveReader.toNotation(sq)).append(' ');
+            pos = pos.play(sq);
+        }
+        return game.toString().trim();
+    }
+
+    /**
+     * @return the final score of `fullGame` as a `MoveReader` score token, such as ":40-24".
+     */
+    static String finalScore() {
+        Position pos = Position.initial();
+        while (!pos.isGameOver()) {
+            long moves = pos.legalMoves();
+            pos = (moves == 0) ? pos.pass() : pos.play(Long.numberOfTrailingZeros(moves));
+        }
+        return ":" + Long.bitCount(pos.getDiscs('X')) + "-" + Long.bitCount(pos.getDiscs('O'));
+    }
+
+    /**
+     * Plays a whole game of random legal moves.
+     *
+     * @param rnd The source of the moves.
+     * @param passes true to record passes as "pass"; false to leave them out.
+     * @return the game in `MoveReader` format, followed by its final score.
+     */
+    static String randomGame(Random rnd, boolean passes) {
+        StringBuilder game = new StringBuilder();
+        Position pos = Position.initial();
+        while (!pos.isGameOver()) {
+            long moves = pos.legalMoves();
+            if (moves == 0) {
+                if (passes) {
+                    game.append("pass ");
+                }
+                pos = pos.pass();
+                continue;
+            }
+            int sq = randomMove(rnd, moves);
+            game.append(MoveReader.toNotation(sq)).append(' ');
+            pos = pos.play(sq);
+        }
+        return game.append(':').append(Long.bitCount(pos.getDiscs('X')))
+                .append('-').append(Long.bitCount(pos.getDiscs('O'))).toString();
+    }
+
+    /**
+     * Picks one of the given moves at random, each with the same chance.
+     *
+     * @param rnd The random source.
+     * @param moves The legal moves as a bitboard.
+     * @return the chosen square.
+     * @pre moves != 0
+     */
+    static int randomMove(Random rnd, long moves) {
+        int skip = rnd.nextInt(Long.bitCount(moves));
+        for (int k = 0; k < skip; k++) {
+            moves &= moves - 1;
+        }
+        return Long.numberOfTrailingZeros(moves);
+    }
+
+    /**
+     * Plays random legal moves from the starting position until the board holds the given number
+     * of discs or the game is over.
+     *
+     * @param rnd The random source.
+     * @param discs The number of discs to stop at.
+     * @return the resulting position.
+     */
+    static Position randomPosition(Random rnd, int discs) {
+        Position pos = Position.initial();
+        while (!pos.isGameOver() && Long.bitCount(pos.getPlayerDiscs() | pos.getOpponentDiscs()) < discs) {
+            long moves = pos.legalMoves();
+            pos = (moves == 0) ? pos.pass() : pos.play(randomMove(rnd, moves));
+        }
+        return pos;
+    }
+
+    /**
+     * Plays random legal moves from the starting position on an `OthelloBoard`.
+     *
+     * @param rnd The random source.
+     * @param plies The number of moves to try to play; a pass counts as one.
+     * @return the resulting board.
+     */
+    static OthelloBoard randomBoard(Random rnd, int plies) {
+        OthelloBoard board = new OthelloBoard();
+        char p = 'X';
+        for (int i = 0; i < plies; i++) {
+            char o = (p == 'X') ? 'O' : 'X';
+            long legal = Bitboards.legalMoves(Bitboards.fromBoard(board, p), Bitboards.fromBoard(board, o));
+            if (legal != 0) {
+                board.placeToken(p, BoardPosition.of(randomMove(rnd, legal)));
+            }
+            p = o;
+        }
+        return board;
+    }
+
+    /**
+     * Scores a position by trying every line to the end of the game, with no pruning.
+     *
+     * @param p The discs of the player to move.
+     * @param o The discs of the other player.
+     * @return the final disc difference with best play, from the view of the player to move.
+     */
+    static int minimax(long p, long o) {
+        long moves = Bitboards.legalMoves(p, o);
+        if (moves == 0) {
+            if (Bitboards.legalMoves(o, p) == 0) {
+                return Long.bitCount(p) - Long.bitCount(o);
+            }
+            return -minimax(o, p);
+        }
+        int best = -64;
+        for (; moves != 0; moves &= moves - 1) {
+            int sq = Long.numberOfTrailingZeros(moves);
+            long flips = Bitboards.flips(p, o, sq);
+            best = Math.max(best, -minimax(o & ~flips, p | flips | (1L << sq)));
+        }
+        return best;
+    }
+}
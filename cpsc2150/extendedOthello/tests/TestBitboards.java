@@ -0,0 +1,114 @@
+package cpsc2150.extendedOthello.tests;
+
+import cpsc2150.extendedOthello.models.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for verifying that the bitboard move generation in `Bitboards` and
+ * `BatchMoveGenerator` agrees with the rules implemented by `OthelloBoard`.
+ */
+public class TestBitboards {
+
+    private static final int POSITIONS = 500;
+
+    /**
+     * Tests the legal moves of the starting position for 'X'.
+     */
+    @Test
+    public void testLegalMoves_Initial() {
+        IOthelloBoard board = new OthelloBoard();
+        long moves = Bitboards.legalMoves(Bitboards.fromBoard(board, 'X'), Bitboards.fromBoard(board, 'O'));
+        long expected = (1L << (2 * 8 + 4)) | (1L << (3 * 8 + 5)) | (1L << (4 * 8 + 2)) | (1L << (5 * 8 + 3));
+        assertEquals(expected, moves);
+    }
+
+    /**
+     * Tests that the legal-move bitboard matches `isLegalMove` on every square of random positions.
+     */
+    @Test
+    public void testLegalMoves_MatchesOthelloBoard() {
+        Random rnd = new Random(1);
+        for (int n = 0; n < POSITIONS; n++) {
+            OthelloBoard board = GameFixtures.randomBoard(rnd, rnd.nextInt(60));
+            long x = Bitboards.fromBoard(board, 'X');
+            long o = Bitboards.fromBoard(board, 'O');
+            long xMoves = Bitboards.legalMoves(x, o);
+            long oMoves = Bitboards.legalMoves(o, x);
+            for (int sq = 0; sq < 64; sq++) {
+                BoardPosition pos = new BoardPosition(sq / 8, sq % 8);
+                assertEquals(board.isLegalMove('X', pos), (xMoves >>> sq & 1) != 0);
+                assertEquals(board.isLegalMove('O', pos), (oMoves >>> sq & 1) != 0);
+            }
+        }
+    }
+
+    /**
+     * Tests that the flip bitboard of every legal move matches what `placeToken` flips.
+     */
+    @Test
+    public void testFlips_MatchesPlaceToken() {
+        Random rnd = new Random(2);
+        for (int n = 0; n < POSITIONS; n++) {
+            OthelloBoard board = GameFixtures.randomBoard(rnd, rnd.nextInt(60));
+            long x = Bitboards.fromBoard(board, 'X');
+            long o = Bitboards.fromBoard(board, 'O');
+            long moves = Bitboards.legalMoves(x, o);
+            while (moves != 0) {
+                int sq = Long.numberOfTrailingZeros(moves);
+                moves &= moves - 1;
+
+                OthelloBoard copy = new OthelloBoard();
+                char[][] cells = board.getBoardCopy();
+                for (int r = 0; r < 8; r++) {
+                    for (int c = 0; c < 8; c++) {
+                        copy.forcePlace(cells[r][c], new BoardPosition(r, c));
+                    }
+                }
+                copy.placeToken('X', new BoardPosition(sq / 8, sq % 8));
+
+                long flipped = Bitboards.flips(x, o, sq);
+                assertNotEquals(0L, flipped);
+                assertEquals(x | flipped | (1L << sq), Bitboards.fromBoard(copy, 'X'));
+            }
+        }
+    }
+
+    /**
+     * Tests that the batch API gives the same results as the single-position methods,
+     * including a batch size that does not fill the last vector.
+     */
+    @Test
+    public void testBatch_MatchesSinglePosition() {
+        Random rnd = new Random(3);
+        int count = 203;
+        long[] player = new long[count];
+        long[] opponent = new long[count];
+        int[] squares = new int[count];
+        for (int i = 0; i < count; i++) {
+            OthelloBoard board = GameFixtures.randomBoard(rnd, rnd.nextInt(60));
+            player[i] = Bitboards.fromBoard(board, 'X');
+            opponent[i] = Bitboards.fromBoard(board, 'O');
+            squares[i] = (i % 7 == 0) ? -1 : rnd.nextInt(64);
+        }
+
+        long[] moves = new long[count];
+        long[] flips = new long[count];
+        int[] playerCounts = new int[count];
+        int[] opponentCounts = new int[count];
+        BatchMoveGenerator.legalMoves(player, opponent, moves, count);
+        BatchMoveGenerator.flips(player, opponent, squares, flips, count);
+        BatchMoveGenerator.discCounts(player, opponent, playerCounts, opponentCounts, count);
+
+        for (int i = 0; i < count; i++) {
+            assertEquals(Bitboards.legalMoves(player[i], opponent[i]), moves[i]);
+            long expectedFlips = (squares[i] < 0) ? 0 : Bitboards.flips(player[i], opponent[i], squares[i]);
+            assertEquals(expectedFlips, flips[i]);
+            assertEquals(Long.bitCount(player[i]), playerCounts[i]);
+            assertEquals(Long.bitCount(opponent[i]), opponentCounts[i]);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package cpsc2150.extendedOthello.tests;
+
+import cpsc2150.extendedOthello.ai.ComputerPlayer;
+import cpsc2150.extendedOthello.ai.Search;
+import cpsc2150.extendedOthello.models.Bitboards;
+import cpsc2150.extendedOthello.models.Position;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for verifying the alpha-beta `Search` and the time budgets and pondering of `ComputerPlayer`.
+ */
+public class TestComputerPlayer {
+
+    /** A clock that never moves, so searches are only bounded by depth or `stop`. */
+    private static final LongSupplier FROZEN = () -> 0L;
+
+    /**
+     * Helper method that returns a clock advancing one millisecond every time it is read. Searches
+     * read the clock once every 1024 nodes, so time on this clock measures work, not machine speed.
+     *
+     * @param now Holds the current time in nanoseconds.
+     * @return the clock.
+     */
+    private static LongSupplier stepping(AtomicLong now) {
+        return () -> now.addAndGet(1_000_000L);
+    }
+
+    /**
+     * Tests that the search returns a legal move for the initial position.
+     */
+    @Test
+    public void testSearch_InitialPositionGivesLegalMove() {
+        Position start = Position.initial();
+        Search.Result result = new Search(16, null, FROZEN).search(start.getPlayerDiscs(), start.getOpponentDiscs(),
+                1, 4);
+
+        assertTrue((start.legalMoves() & (1L << result.move)) != 0);
+        assertEquals(4, result.depth);
+        assertEquals(result.move, result.pv[0]);
+    }
+
+    /**
+     * Tests that the search scores endgames exactly like a plain minimax over the whole tree.
+     */
+    @Test
+    public void testSearch_EndgameMatchesMinimax() {
+        Random rnd = new Random(34);
+        Search search = new Search(16, null, FROZEN);
+        for (int game = 0; game < 20; game++) {
+            Position pos = GameFixtures.randomPosition(rnd, 54);
+            if (pos.isGameOver() || pos.legalMoves() == 0) {
+                continue;
+            }
+            Search.Result result = search.search(pos.getPlayerDiscs(), pos.getOpponentDiscs(), 1, 60);
+
+            int expected = GameFixtures.minimax(pos.getPlayerDiscs(), pos.getOpponentDiscs());
+            assertEquals(expected * Search.FINAL_SCALE, result.score);
+            long flips = Bitboards.flips(pos.getPlayerDiscs(), pos.getOpponentDiscs(), result.move);
+            long player = pos.getPlayerDiscs() | flips | (1L << result.move);
+            long opponent = pos.getOpponentDiscs() & ~flips;
+            assertEquals(expected, -GameFixtures.minimax(opponent, player));
+        }
+    }
+
+    /**
+     * Tests that multi-PV analysis deep enough to reach the end of the game gives the exact score
+     * of each of the best moves, best first.
+     */
+    @Test
+    public void testAnalyze_TopMovesMatchMinimax() {
+        Random rnd = new Random(36);
+        Search search = new Search(16);
+        for (int game = 0; game < 20; game++) {
+            Position pos = GameFixtures.randomPosition(rnd, 55);
+            if (pos.isGameOver() || pos.legalMoves() == 0) {
+                continue;
+            }
+            Search.Result[] top = search.analyze(pos.getPlayerDiscs(), pos.getOpponentDiscs(), 60, 3);
+
+            assertEquals(Math.min(3, Long.bitCount(pos.legalMoves())), top.length);
+            int[] exact = new int[64];
+            for (long moves = pos.legalMoves(); moves != 0; moves &= moves - 1) {
+                int sq = Long.numberOfTrailingZeros(moves);
+                long flips = Bitboards.flips(pos.getPlayerDiscs(), pos.getOpponentDiscs(), sq);
+                exact[sq] = -GameFixtures.minimax(pos.getOpponentDiscs() & ~flips, pos.getPlayerDiscs() | flips | (1L << sq));
+            }
+            int best = Integer.MIN_VALUE;
+            for (long moves = pos.legalMoves(); moves != 0; moves &= moves - 1) {
+                best = Math.max(best, exact[Long.numberOfTrailingZeros(moves)]);
+            }
+            assertEquals(best * Search.FINAL_SCALE, top[0].score);
+            for (int i = 0; i < top.length; i++) {
+                assertEquals(exact[top[i].move] * Search.FINAL_SCALE, top[i].score);
+                if (i > 0) {
+                    assertTrue(top[i - 1].score >= top[i].score);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that the window below the `count`-th best score never drops a move that belongs in the
+     * list: for every count, the returned scores are the best exact scores of all moves.
+     */
+    @Test
+    public void testAnalyze_WindowKeepsTrueTopMoves() {
+        Random rnd = new Random(361);
+        for (int game = 0; game < 10; game++) {
+            Position pos = GameFixtures.randomPosition(rnd, 55);
+            if (pos.isGameOver() || pos.legalMoves() == 0) {
+                continue;
+            }
+            int n = Long.bitCount(pos.legalMoves());
+            int[] exact = new int[n];
+            int i = 0;
+            for (long moves = pos.legalMoves(); moves != 0; moves &= moves - 1) {
+                int sq = Long.numberOfTrailingZeros(moves);
+                long flips = Bitboards.flips(pos.getPlayerDiscs(), pos.getOpponentDiscs(), sq);
+                exact[i++] = -GameFixtures.minimax(pos.getOpponentDiscs() & ~flips, pos.getPlayerDiscs() | flips | (1L << sq));
+            }
+            Arrays.sort(exact);
+
+            for (int count = 1; count <= n; count++) {
+                Search.Result[] top = new Search(16).analyze(pos.getPlayerDiscs(), pos.getOpponentDiscs(), 60, count);
+                assertEquals(count, top.length);
+                for (int k = 0; k < count; k++) {
+                    assertEquals(exact[n - 1 - k] * Search.FINAL_SCALE, top[k].score);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that `analyze` takes its time from the search's clock, like `search` does.
+     */
+    @Test
+    public void testAnalyze_ReadsInjectedClock() {
+        AtomicLong reads = new AtomicLong();
+        Search search = new Search(16, null, () -> reads.incrementAndGet() * 1_000_000L);
+        Position start = Position.initial();
+        search.analyze(start.getPlayerDiscs(), start.getOpponentDiscs(), 3, 2);
+
+        assertTrue(reads.get() >= 2);
+    }
+
+    /**
+     * Tests that a search whose deadline never comes stops when asked to from another thread.
+     */
+    @Test
+    public void testSearch_StopsWhenAsked() throws InterruptedException {
+        Search search = new Search(16, null, FROZEN);
+        Position start = Position.initial();
+        Thread stopper = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                return;
+            }
+            search.stop();
+        });
+        stopper.start();
+        Search.Result result = search.search(start.getPlayerDiscs(), start.getOpponentDiscs(), 1, 60);
+        stopper.join();
+
+        assertTrue(result.depth < 60);
+        assertTrue((start.legalMoves() & (1L << result.move)) != 0);
+    }
+
+    /**
+     * Tests that a move asks for no more than the per-move budget, stops at it, and is charged
+     * to the game budget.
+     */
+    @Test
+    public void testChooseMove_RespectsMoveBudget() {
+        AtomicLong now = new AtomicLong();
+        ComputerPlayer computer = new ComputerPlayer('X', 100, 60000, null, stepping(now));
+        int move = computer.chooseMove(Position.initial());
+
+        assertEquals(100, computer.getLastBudgetMillis());
+        long used = 60000 - computer.getRemainingGameMillis();
+        assertTrue("used " + used + " ms", used > 0 && used <= 100 + 2);
+        assertTrue((Position.initial().legalMoves() & (1L << move)) != 0);
+        computer.shutdown();
+    }
+
+    /**
+     * Tests that the game budget is spread over the computer's remaining moves.
+     */
+    @Test
+    public void testChooseMove_SplitsGameBudget() {
+        AtomicLong now = new AtomicLong();
+        ComputerPlayer computer = new ComputerPlayer('X', 1000, 600, null, stepping(now));
+        computer.chooseMove(Position.initial());
+
+        // 60 empty squares leave the computer 30 moves
+        assertEquals(20, computer.getLastBudgetMillis());
+        computer.shutdown();
+    }
+
+    /**
+     * Tests that once the game budget is spent, moves are still legal but only searched one ply deep.
+     */
+    @Test
+    public void testChooseMove_SearchesOnePlyOnceGameBudgetIsSpent() {
+        AtomicLong now = new AtomicLong();
+        ComputerPlayer computer = new ComputerPlayer('X', 1000, 5, null, stepping(now));
+        Position pos = Position.initial().play(computer.chooseMove(Position.initial()));
+        assertEquals(0, computer.getRemainingGameMillis());
+
+        pos = pos.play(Long.numberOfTrailingZeros(pos.legalMoves()));
+        long mark = now.get();
+        int move = computer.chooseMove(pos);
+        assertEquals(1, computer.getLastResult().depth);
+        assertTrue((pos.legalMoves() & (1L << move)) != 0);
+        assertTrue((now.get() - mark) / 1_000_000L <= 10 + 2);
+        computer.shutdown();
+    }
+
+    /**
+     * Tests that stopping the ponder search waits for it to end even when the calling thread is
+     * interrupted, so the shared search is never used by two threads at once.
+     */
+    @Test
+    public void testStopPondering_WaitsWhenInterrupted() throws InterruptedException {
+        AtomicLong reads = new AtomicLong();
+        ComputerPlayer computer = new ComputerPlayer('X', 200, 60000, null, () -> {
+            reads.incrementAndGet();
+            return 0L;
+        });
+        Position pos = Position.initial();
+        computer.startPondering(pos.play(Long.numberOfTrailingZeros(pos.legalMoves())));
+        while (reads.get() < 10) {
+            Thread.sleep(1);
+        }
+
+        Thread.currentThread().interrupt();
+        computer.stopPondering();
+        assertTrue(Thread.interrupted());
+        long after = reads.get();
+        Thread.sleep(50);
+        assertEquals(after, reads.get());
+        computer.shutdown();
+    }
+
+    /**
+     * Tests that playing the predicted reply is a ponder hit that costs no game time, and playing
+     * another reply is a miss.
+     */
+    @Test
+    public void testPondering_HitAndMiss() throws InterruptedException {
+        AtomicLong now = new AtomicLong();
+        ComputerPlayer computer = new ComputerPlayer('X', 200, 60000, null, stepping(now));
+        Position pos = Position.initial().play(computer.chooseMove(Position.initial()));
+        int predicted = computer.getLastResult().expectedReply();
+        assertTrue(predicted >= 0);
+
+        // Give the ponder search twice the work the first move had, however long that takes
+        long mark = now.get();
+        computer.startPondering(pos);
+        while (now.get() - mark < 2 * 200_000_000L) {
+            Thread.sleep(1);
+        }
+        Position afterReply = pos.play(predicted);
+        long remaining = computer.getRemainingGameMillis();
+        int move = computer.chooseMove(afterReply);
+        assertTrue(computer.wasPonderHit());
+        assertEquals(remaining, computer.getRemainingGameMillis());
+        assertTrue((afterReply.legalMoves() & (1L << move)) != 0);
+
+        pos = afterReply.play(move);
+        predicted = computer.getLastResult().expectedReply();
+        long others = pos.legalMoves() & ~(1L << Math.max(predicted, 0));
+        assertTrue(others != 0);
+        computer.startPondering(pos);
+        Position other = pos.play(Long.numberOfTrailingZeros(others));
+        move = computer.chooseMove(other);
+        assertFalse(computer.wasPonderHit());
+        assertTrue((other.legalMoves() & (1L << move)) != 0);
+        computer.shutdown();
+    }
+}
@@ -0,0 +1,156 @@
+package cpsc2150.extendedOthello.tests;
+
+import cpsc2150.extendedOthello.models.Position;
+import cpsc2150.extendedOthello.server.GameServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for verifying the line protocol of `GameServer` over real loopback connections.
+ */
+public class TestGameServer {
+
+    private GameServer server;
+    private Thread serverThread;
+
+    /**
+     * Starts a server on a free port for each test.
+     */
+    @Before
+    public void startServer() throws IOException {
+        server = new GameServer(0);
+        serverThread = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }, "test-server");
+        serverThread.start();
+    }
+
+    /**
+     * Stops the server and waits for its loop to end.
+     */
+    @After
+    public void stopServer() throws InterruptedException {
+        server.stop();
+        serverThread.join(5000);
+        assertFalse(serverThread.isAlive());
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        socket.setSoTimeout(10000);
+        return socket;
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Helper method that writes a position's cells the way the `BOARD` reply does.
+     */
+    private static String cells(Position pos) {
+        StringBuilder sb = new StringBuilder("BOARD ");
+        for (int sq = 0; sq < 64; sq++) {
+            char c = pos.whatsAt(sq);
+            sb.append(c == ' ' ? '.' : c);
+        }
+        return sb.toString();
+    }
+
+    private static void send(Socket socket, String text) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(text.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    /**
+     * Tests a short game: the opening moves, the board, and errors that leave the game unchanged.
+     */
+    @Test
+    public void testProtocol_PlaysMovesAndReportsErrors() throws IOException {
+        try (Socket socket = connect()) {
+            BufferedReader in = reader(socket);
+
+            send(socket, "BOARD\n");
+            assertEquals("ERR no game; send NEW first", in.readLine());
+            Position start = Position.initial();
+            Position afterE3 = start.play(20);
+            send(socket, "NEW\n");
+            assertEquals("OK X " + Long.toHexString(start.legalMoves()), in.readLine());
+            send(socket, "MOVE e3\r\n");
+            assertEquals("OK O " + Long.toHexString(afterE3.legalMoves()), in.readLine());
+            send(socket, "MOVE e3\nMOVE zz\nJUMP\n");
+            assertEquals("ERR illegal move for O", in.readLine());
+            assertEquals("ERR unreadable move", in.readLine());
+            assertEquals("ERR unknown command", in.readLine());
+            send(socket, "BOARD\n");
+            assertEquals(cells(afterE3), in.readLine());
+        }
+    }
+
+    /**
+     * Tests that `QUIT` closes the connection and that commands sent after it are not run.
+     */
+    @Test
+    public void testQuit_IgnoresLaterCommands() throws IOException {
+        try (Socket socket = connect()) {
+            BufferedReader in = reader(socket);
+
+            send(socket, "NEW\nQUIT\nNEW\nBOARD\n");
+            assertTrue(in.readLine().startsWith("OK X "));
+            assertEquals("BYE", in.readLine());
+            assertNull(in.readLine());
+        }
+    }
+
+    /**
+     * Tests that a client that sends many commands before reading any reply still gets every reply,
+     * in order, and does not hold up another client meanwhile.
+     */
+    @Test
+    public void testBackpressure_SlowReaderGetsAllReplies() throws Exception {
+        int commands = 50000;
+        try (Socket flooder = connect(); Socket other = connect()) {
+            Thread writer = new Thread(() -> {
+                try {
+                    StringBuilder batch = new StringBuilder("NEW\n");
+                    for (int i = 0; i < commands; i++) {
+                        batch.append("BOARD\n");
+                    }
+                    send(flooder, batch.toString());
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }, "test-flooder");
+            writer.start();
+
+            BufferedReader otherIn = reader(other);
+            send(other, "NEW\n");
+            assertEquals("OK X " + Long.toHexString(Position.initial().legalMoves()), otherIn.readLine());
+
+            BufferedReader in = reader(flooder);
+            String board = cells(Position.initial());
+            assertTrue(in.readLine().startsWith("OK X "));
+            for (int i = 0; i < commands; i++) {
+                assertEquals(board, in.readLine());
+            }
+            writer.join(10000);
+            assertFalse(writer.isAlive());
+        }
+    }
+}
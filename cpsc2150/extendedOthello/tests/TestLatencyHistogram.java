@@ -0,0 +1,54 @@
+package cpsc2150.extendedOthello.tests;
+
+import cpsc2150.extendedOthello.metrics.LatencyHistogram;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for verifying the percentiles reported by `LatencyHistogram`.
+ */
+public class TestLatencyHistogram {
+
+    /**
+     * Tests that an empty histogram reports no values.
+     */
+    @Test
+    public void testPercentile_EmptyIsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(99));
+    }
+
+    /**
+     * Tests that small values are recorded exactly.
+     */
+    @Test
+    public void testPercentile_SmallValuesExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int v = 1; v <= 10; v++) {
+            histogram.record(v);
+        }
+        assertEquals(10, histogram.count());
+        assertEquals(5, histogram.percentile(50));
+        assertEquals(10, histogram.percentile(100));
+    }
+
+    /**
+     * Tests that percentiles of large values are within the histogram's precision.
+     */
+    @Test
+    public void testPercentile_LargeValuesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100000; v++) {
+            histogram.record(v * 1000);
+        }
+        long p50 = histogram.percentile(50);
+        long p99 = histogram.percentile(99);
+        assertTrue("p50 was " + p50, Math.abs(p50 - 50_000_000L) <= 50_000_000L / 16);
+        assertTrue("p99 was " + p99, Math.abs(p99 - 99_000_000L) <= 99_000_000L / 16);
+
+        histogram.reset();
+        assertEquals(0, histogram.count());
+    }
+}
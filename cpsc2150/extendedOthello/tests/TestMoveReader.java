@@ -0,0 +1,267 @@
+package cpsc2150.extendedOthello.tests;
+
+import cpsc2150.extendedOthello.models.BoardPosition;
+import cpsc2150.extendedOthello.models.MoveReader;
+import cpsc2150.extendedOthello.models.OthelloBoard;
+import cpsc2150.extendedOthello.views.OthelloFE;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for verifying the scripted-game parser `MoveReader` and the move input of `OthelloFE`.
+ */
+public class TestMoveReader {
+
+    /**
+     * Helper method that reads every token of the input, including the final `END_OF_INPUT`.
+     *
+     * @param in The input to read.
+     * @return the tokens in order.
+     */
+    private int[] tokens(InputStream in) throws IOException {
+        MoveReader reader = new MoveReader(in);
+        int[] tokens = new int[64];
+        int n = 0;
+        int token;
+        do {
+            token = reader.next();
+            tokens[n++] = token;
+        } while (token != MoveReader.END_OF_INPUT);
+        return Arrays.copyOf(tokens, n);
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Helper method that hands out the input one byte per read, so every token spans buffer refills.
+     */
+    private static InputStream trickle(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+    }
+
+    /**
+     * Tests that moves in both notations, passes and game ends come back in order.
+     */
+    @Test
+    public void testNext_MovesPassesAndGameEnds() throws IOException {
+        int[] expected = {19, 28, MoveReader.PASS, MoveReader.PASS, MoveReader.END_OF_GAME,
+                20, MoveReader.END_OF_GAME, MoveReader.END_OF_INPUT};
+
+        assertArrayEquals(expected, tokens(stream("d3 3,4 pass --\n\n# a comment\n\tE3\r\n")));
+    }
+
+    /**
+     * Tests that the last game ends even without a trailing newline, and that empty input has no games.
+     */
+    @Test
+    public void testNext_EndOfInput() throws IOException {
+        assertArrayEquals(new int[]{19, MoveReader.END_OF_GAME, MoveReader.END_OF_INPUT}, tokens(stream("d3")));
+        assertArrayEquals(new int[]{MoveReader.END_OF_INPUT}, tokens(stream("")));
+        assertArrayEquals(new int[]{MoveReader.END_OF_INPUT}, tokens(stream("\n# only a comment\n")));
+    }
+
+    /**
+     * Tests that malformed tokens, including ones glued to a valid move, are consumed whole
+     * and reported as `BAD_TOKEN`.
+     */
+    @Test
+    public void testNext_BadTokens() throws IOException {
+        int[] expected = {MoveReader.BAD_TOKEN, MoveReader.BAD_TOKEN, MoveReader.BAD_TOKEN,
+                MoveReader.BAD_TOKEN, 19, MoveReader.END_OF_GAME, MoveReader.END_OF_INPUT};
+
+        assertArrayEquals(expected, tokens(stream("i3 d3x 8,0 passes d3\n")));
+    }
+
+    /**
+     * Tests that a recorded score is returned as `SCORE` with both counts.
+     */
+    @Test
+    public void testNext_Score() throws IOException {
+        MoveReader reader = new MoveReader(stream("d3 : 40-24\n"));
+
+        assertEquals(19, reader.next());
+        assertEquals(MoveReader.SCORE, reader.next());
+        assertEquals(40, reader.getScoreX());
+        assertEquals(24, reader.getScoreO());
+        assertEquals(MoveReader.END_OF_GAME, reader.next());
+    }
+
+    /**
+     * Tests that tokens split across buffer refills parse the same as tokens read in one piece.
+     */
+    @Test
+    public void testNext_TokenSplitAcrossRefill() throws IOException {
+        String games = "d3 3,4 pass :40-24\nE3 x9 --\n";
+
+        assertArrayEquals(tokens(stream(games)), tokens(trickle(games)));
+    }
+
+    /**
+     * Tests that line numbers and token indexes point at the most recent token.
+     */
+    @Test
+    public void testNext_LineNumberAndTokenIndex() throws IOException {
+        MoveReader reader = new MoveReader(stream("d3\n\n# comment\ne3 f4 x9\n"));
+
+        reader.next();
+        reader.next();
+        assertEquals(20, reader.next());
+        assertEquals(4, reader.getLineNumber());
+        reader.next();
+        assertEquals(MoveReader.BAD_TOKEN, reader.next());
+        assertEquals(3, reader.getTokenIndex());
+        assertEquals(4, reader.getLineNumber());
+    }
+
+    /**
+     * Tests that `skipGame` discards the rest of the current line only.
+     */
+    @Test
+    public void testSkipGame_ResumesOnNextLine() throws IOException {
+        MoveReader reader = new MoveReader(stream("d3 e3 f4\nc4\n"));
+
+        assertEquals(19, reader.next());
+        reader.skipGame();
+        assertEquals(MoveReader.END_OF_GAME, reader.next());
+        assertEquals(26, reader.next());
+    }
+
+    /**
+     * Helper method that runs batch mode with a line per game and returns the printed lines.
+     */
+    private String[] runBatch(String games) throws IOException {
+        StringWriter text = new StringWriter();
+        OthelloFE.runBatch(stream(games), true, new PrintWriter(text));
+        return text.toString().split("\\R");
+    }
+
+    /**
+     * Tests that batch mode counts finished games and reports the first bad move of a rejected game.
+     */
+    @Test
+    public void testRunBatch_CountsAndRejects() throws IOException {
+        String full = GameFixtures.fullGame(false);
+        String[] lines = runBatch(full + "\ne3 e3\ne3 zz\n");
+
+        assertEquals(4, lines.length);
+        assertEquals("game 1: " + full.split(" ").length + " moves, X 40 | O 24, X wins", lines[0]);
+        assertEquals("game 2: rejected move 2 on line 2 (O e3): square is already occupied", lines[1]);
+        assertEquals("game 3: rejected move 2 on line 3: unreadable move", lines[2]);
+        assertEquals("Games: 3 | Moves: " + full.split(" ").length
+                + " | X wins: 1 | O wins: 0 | Draws: 0 | Rejected: 2", lines[3]);
+    }
+
+    /**
+     * Tests that batch mode rejects games that stop while a player can still move, instead of
+     * scoring the unfinished board.
+     */
+    @Test
+    public void testRunBatch_RejectsUnfinishedGames() throws IOException {
+        String[] lines = runBatch("e3 f3\nf4 :2-2\n");
+
+        assertEquals("game 1: rejected move 3 on line 1: game ends while X can still move", lines[0]);
+        assertEquals("game 2: rejected move 2 on line 2: final score recorded before the game is over", lines[1]);
+        assertEquals("Games: 2 | Moves: 0 | X wins: 0 | O wins: 0 | Draws: 0 | Rejected: 2", lines[2]);
+    }
+
+    /**
+     * Tests that recorded passes are checked: a pass is accepted only when the player has no legal move.
+     */
+    @Test
+    public void testRunBatch_ChecksPasses() throws IOException {
+        String withPass = null;
+        for (int seed = 0; withPass == null || !withPass.contains("pass"); seed++) {
+            withPass = GameFixtures.randomGame(new Random(seed), true);
+        }
+        String[] lines = runBatch("pass\ne3 pass\n" + withPass + "\n");
+
+        assertEquals("game 1: rejected move 1 on line 1: pass while X has a legal move", lines[0]);
+        assertEquals("game 2: rejected move 2 on line 2: pass while O has a legal move", lines[1]);
+        assertTrue(lines[2], lines[2].startsWith("game 3: ") && !lines[2].contains("rejected"));
+        assertTrue(lines[3], lines[3].endsWith("Rejected: 2"));
+    }
+
+    /**
+     * Tests that a recorded final score must match the board.
+     */
+    @Test
+    public void testRunBatch_ChecksScores() throws IOException {
+        String full = GameFixtures.fullGame(false);
+        String[] lines = runBatch(full + " " + GameFixtures.finalScore() + "\n" + full + " :1-63\n");
+
+        assertEquals("game 1: " + full.split(" ").length + " moves, X 40 | O 24, X wins", lines[0]);
+        assertTrue(lines[1], lines[1].startsWith("game 2: rejected move " + (full.split(" ").length + 1)
+                + " on line 2: recorded score 1-63 but the board has 40-24"));
+        assertTrue(lines[2], lines[2].endsWith("Rejected: 1"));
+    }
+
+    /**
+     * Tests that batch mode rejects a move next to an opponent token that flips nothing.
+     */
+    @Test
+    public void testRunBatch_RejectsMoveThatFlipsNothing() throws IOException {
+        StringWriter text = new StringWriter();
+        OthelloFE.runBatch(stream("f3\n"), true, new PrintWriter(text));
+
+        assertTrue(text.toString(), text.toString().startsWith(
+                "game 1: rejected move 1 on line 1 (X f3): move flips no discs"));
+    }
+
+    /**
+     * Tests that the interactive prompt asks again after a move next to an opponent token that flips nothing.
+     */
+    @Test
+    public void testReadMove_RejectsMoveThatFlipsNothing() {
+        // f3 (row 2, column 5) touches O's d5 diagonally but flips nothing; e3 flips e4
+        Scanner sc = new Scanner("2 5\n2 4\n");
+        BoardPosition move = OthelloFE.readMove(sc, new OthelloBoard(true), 'X');
+
+        assertEquals(new BoardPosition(2, 4), move);
+    }
+
+    /**
+     * Tests that bad option values stop the program with the usage message and exit status 2,
+     * instead of crashing or being used as given.
+     */
+    @Test
+    public void testMain_RejectsBadOptionValues() throws IOException, InterruptedException {
+        String[][] cases = {
+                {"--computer", ""}, {"--computer", "Z"}, {"--computer", "XO"},
+                {"--move-ms", "abc"}, {"--move-ms", "-5"}, {"--game-ms", "0"}, {"--frobnicate"},
+        };
+        for (String[] options : cases) {
+            List<String> command = new ArrayList<>(List.of(
+                    Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-cp", System.getProperty("java.class.path"),
+                    "cpsc2150.extendedOthello.views.OthelloFE"));
+            command.addAll(Arrays.asList(options));
+            Process fe = new ProcessBuilder(command).redirectErrorStream(true).start();
+            fe.getOutputStream().close();
+            String output = new String(fe.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+
+            assertEquals(Arrays.toString(options) + ": " + output, 2, fe.waitFor());
+            assertTrue(output, output.contains("Usage: OthelloFE"));
+        }
+    }
+}
@@ -3,6 +3,10 @@ package cpsc2150.extendedOthello.tests;
 import cpsc2150.extendedOthello.models.*;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 /**
@@ -182,4 +186,181 @@ private IOthelloBoard makeBoard() {
         assertTrue("toString should contain score for X", output.contains("X -"));
         assertTrue("toString should contain score for O", output.contains("O -"));
     }
+
+    /**
+     * Tests that a move which flips an opponent token is legal for 'X' on the starting board.
+     */
+    @Test
+    public void testIsLegalMove_FlipsTrue() {
+        IOthelloBoard board = makeBoard();
+        assertTrue(board.isLegalMove('X', new BoardPosition(2, 4)));
+    }
+
+    /**
+     * Tests that an empty square next to an opponent token is not legal when nothing would flip.
+     */
+    @Test
+    public void testIsLegalMove_AdjacentButNoFlipFalse() {
+        IOthelloBoard board = makeBoard();
+        assertFalse(board.isLegalMove('X', new BoardPosition(2, 3)));
+        assertFalse(board.isLegalMove('X', new BoardPosition(3, 3)));
+    }
+
+    /**
+     * Tests that a player with no opponent tokens to flip has no legal move.
+     */
+    @Test
+    public void testHasLegalMove_NoOpponentTokensFalse() {
+        IOthelloBoard board = makeBoard();
+        assertTrue(board.hasLegalMove('X'));
+
+        board.forcePlace('X', new BoardPosition(3, 4));
+        board.forcePlace('X', new BoardPosition(4, 3));
+        assertFalse(board.hasLegalMove('X'));
+        assertFalse(board.hasLegalMove('O'));
+    }
+
+    /**
+     * Tests that a board tracking mobility starts with four legal moves for each player.
+     */
+    @Test
+    public void testGetMobility_TrackedInitial() {
+        OthelloBoard board = new OthelloBoard(true);
+        assertEquals(4, board.getMobility('X'));
+        assertEquals(4, board.getMobility('O'));
+        assertEquals(12, Long.bitCount(board.getFrontier()));
+    }
+
+    /**
+     * Tests that the incrementally tracked moves and frontier match a fresh computation
+     * after every move of random games, including forced placements.
+     */
+    @Test
+    public void testTrackedMobility_MatchesUntracked() {
+        Random rnd = new Random(5);
+        for (int game = 0; game < 200; game++) {
+            OthelloBoard tracked = new OthelloBoard(true);
+            OthelloBoard plain = new OthelloBoard();
+            char p = 'X';
+            for (int ply = 0; ply < 64; ply++) {
+                assertEquals(plain.getLegalMoves('X'), tracked.getLegalMoves('X'));
+                assertEquals(plain.getLegalMoves('O'), tracked.getLegalMoves('O'));
+                assertEquals(plain.getFrontier(), tracked.getFrontier());
+                assertEquals(plain.hasLegalMove(p), tracked.hasLegalMove(p));
+
+                long moves = tracked.getLegalMoves(p);
+                if (moves == 0) {
+                    p = (p == 'X') ? 'O' : 'X';
+                    if (tracked.getLegalMoves(p) == 0) break;
+                    continue;
+                }
+                BoardPosition pos = BoardPosition.of(GameFixtures.randomMove(rnd, moves));
+                tracked.placeToken(p, pos);
+                plain.placeToken(p, pos);
+
+                if (ply % 10 == 9) {
+                    BoardPosition forced = new BoardPosition(rnd.nextInt(8), rnd.nextInt(8));
+                    tracked.forcePlace(p, forced);
+                    plain.forcePlace(p, forced);
+                }
+                p = (p == 'X') ? 'O' : 'X';
+            }
+        }
+    }
+
+    /**
+     * Tests the table-driven flips against a plain walk along each ray, for every square, every line
+     * through it, every token on the square and every possible content of the rest of the line.
+     */
+    @Test
+    public void testFlipDirections_MatchRayWalkExhaustively() {
+        // {row step, column step} of each line, and the directions the matching flip method walks
+        int[][] lines = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+        int[][][] rays = {
+                {{-1, 0}, {1, 0}},
+                {{0, -1}, {0, 1}},
+                {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}},
+                {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}}};
+        char[] tokens = {'X', 'O', ' '};
+        OthelloBoard board = new OthelloBoard();
+        char[][] expected = new char[8][8];
+
+        for (int sq = 0; sq < 64; sq++) {
+            int row = sq / 8, col = sq % 8;
+            BoardPosition start = new BoardPosition(row, col);
+            for (int line = 0; line < lines.length; line++) {
+                int[][] cells = lineThrough(row, col, lines[line][0], lines[line][1]);
+                for (char token : tokens) {
+                    int combinations = (int) Math.pow(3, cells.length);
+                    for (int code = 0; code < combinations; code++) {
+                        clear(board, expected);
+                        expected[row][col] = token;
+                        board.forcePlace(token, start);
+                        for (int k = 0, rest = code; k < cells.length; k++, rest /= 3) {
+                            char cell = tokens[rest % 3];
+                            expected[cells[k][0]][cells[k][1]] = cell;
+                            board.forcePlace(cell, new BoardPosition(cells[k][0], cells[k][1]));
+                        }
+
+                        for (int[] ray : rays[line]) {
+                            walkRay(expected, row, col, ray[0], ray[1]);
+                        }
+                        if (line == 0) {
+                            board.flipVertDirections(start);
+                        } else if (line == 1) {
+                            board.flipHoriDirections(start);
+                        } else {
+                            board.flipDiagDirections(start);
+                        }
+
+                        assertArrayEquals("square " + sq + ", line " + line + ", code " + code,
+                                expected, board.getBoardCopy());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the cells other than (row, col) on the line through it with the given step.
+     */
+    private static int[][] lineThrough(int row, int col, int dr, int dc) {
+        List<int[]> cells = new ArrayList<>();
+        for (int k = -7; k <= 7; k++) {
+            int r = row + k * dr, c = col + k * dc;
+            if (k != 0 && r >= 0 && r < 8 && c >= 0 && c < 8) {
+                cells.add(new int[]{r, c});
+            }
+        }
+        return cells.toArray(new int[0][]);
+    }
+
+    private static void clear(OthelloBoard board, char[][] cells) {
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                if (cells[r][c] != ' ') {
+                    cells[r][c] = ' ';
+                    board.forcePlace(' ', new BoardPosition(r, c));
+                }
+            }
+        }
+    }
+
+    /**
+     * Flips one ray the way the board did before it used lookup tables.
+     */
+    private static void walkRay(char[][] cells, int row, int col, int dr, int dc) {
+        char currentPlayer = cells[row][col];
+        char opponent = (currentPlayer == 'X') ? 'O' : 'X';
+        int r = row + dr, c = col + dc;
+        while (r >= 0 && r < 8 && c >= 0 && c < 8 && cells[r][c] == opponent) {
+            r += dr;
+            c += dc;
+        }
+        if (r >= 0 && r < 8 && c >= 0 && c < 8 && cells[r][c] == currentPlayer) {
+            for (int i = row + dr, j = col + dc; i != r || j != c; i += dr, j += dc) {
+                cells[i][j] = currentPlayer;
+            }
+        }
+    }
 }
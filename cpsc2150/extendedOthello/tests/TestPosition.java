@@ -0,0 +1,131 @@
+package cpsc2150.extendedOthello.tests;
+
+import cpsc2150.extendedOthello.models.*;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for verifying the immutable `Position` snapshot and its conversions to and from `OthelloBoard`.
+ */
+public class TestPosition {
+
+    /**
+     * Tests that the initial position matches a new board.
+     */
+    @Test
+    public void testInitial_MatchesNewBoard() {
+        assertEquals(Position.fromBoard(new OthelloBoard(), 'X'), Position.initial());
+        assertEquals("---------------------------XO------OX--------------------------- X",
+                Position.initial().toString());
+    }
+
+    /**
+     * Tests that playing a move returns a new position and leaves the original unchanged.
+     */
+    @Test
+    public void testPlay_LeavesOriginalUnchanged() {
+        Position start = Position.initial();
+        Position next = start.play(new BoardPosition(2, 4));
+
+        assertEquals(Position.initial(), start);
+        assertEquals('X', next.whatsAt(2 * 8 + 4));
+        assertEquals('X', next.whatsAt(3 * 8 + 4));
+        assertEquals('O', next.getToMove());
+    }
+
+    /**
+     * Tests that an illegal move is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testPlay_IllegalMoveThrows() {
+        Position.initial().play(new BoardPosition(0, 0));
+    }
+
+    /**
+     * Tests that positions work as map keys and that the side to move is part of equality.
+     */
+    @Test
+    public void testEqualsHashCode_UsableAsMapKey() {
+        HashMap<Position, Integer> map = new HashMap<>();
+        map.put(Position.initial(), 1);
+        Position same = new Position(Position.initial().getDiscs('X'), Position.initial().getDiscs('O'), 'X');
+
+        assertEquals(Integer.valueOf(1), map.get(same));
+        assertNull(map.get(Position.initial().pass()));
+    }
+
+    /**
+     * Tests that `hash64` depends on the discs and the side to move, and matches the static form.
+     */
+    @Test
+    public void testHash64_DependsOnSideToMove() {
+        Position start = Position.initial();
+        Position same = new Position(start.getDiscs('X'), start.getDiscs('O'), 'X');
+
+        assertEquals(start.hash64(), same.hash64());
+        assertEquals(start.hash64(), Position.hash64(start.getPlayerDiscs(), start.getOpponentDiscs()));
+        assertNotEquals(start.hash64(), start.pass().hash64());
+        assertNotEquals(start.hash64(), start.play(20).hash64());
+    }
+
+    /**
+     * Tests that `parse` reads back what `toString` writes, and accepts ' ' and '.' as empty cells.
+     */
+    @Test
+    public void testParse_RoundTripsToString() {
+        Position pos = Position.initial().play(20);
+        assertEquals(pos, Position.parse(pos.toString()));
+        assertEquals(pos, Position.parse(pos.toString().replace('-', '.') + "\r\n"));
+        assertEquals(pos, Position.parse(pos.toString().substring(0, 64).replace('-', ' ') + "\t" + pos.getToMove()));
+    }
+
+    /**
+     * Tests that a line with a bad cell is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_BadCellThrows() {
+        Position.parse(Position.initial().toString().replace('-', '?'));
+    }
+
+    /**
+     * Tests that a line without the player to move is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_MissingPlayerThrows() {
+        Position.parse(Position.initial().toString().substring(0, 64) + "  ");
+    }
+
+    /**
+     * Tests that playing random games on positions gives the same boards as `placeToken`,
+     * and that converting a position to a board and back is lossless.
+     */
+    @Test
+    public void testPlay_MatchesOthelloBoard() {
+        Random rnd = new Random(6);
+        for (int game = 0; game < 100; game++) {
+            OthelloBoard board = new OthelloBoard(true);
+            Position pos = Position.initial();
+            while (!pos.isGameOver()) {
+                long moves = pos.legalMoves();
+                if (moves == 0) {
+                    pos = pos.pass();
+                    continue;
+                }
+                int skip = rnd.nextInt(Long.bitCount(moves));
+                for (int k = 0; k < skip; k++) {
+                    moves &= moves - 1;
+                }
+                int sq = Long.numberOfTrailingZeros(moves);
+                board.placeToken(pos.getToMove(), new BoardPosition(sq / 8, sq % 8));
+                pos = pos.play(sq);
+
+                assertEquals(Position.fromBoard(board, pos.getToMove()), pos);
+                assertEquals(pos, Position.fromBoard(pos.toBoard(), pos.getToMove()));
+            }
+        }
+    }
+}
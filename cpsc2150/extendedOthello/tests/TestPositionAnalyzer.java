@@ -0,0 +1,80 @@
+package cpsc2150.extendedOthello.tests;
+
+import cpsc2150.extendedOthello.ai.Search;
+import cpsc2150.extendedOthello.models.Position;
+import cpsc2150.extendedOthello.tools.PositionAnalyzer;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for verifying that `PositionAnalyzer` streams one correct result line per position, in input order.
+ */
+public class TestPositionAnalyzer {
+
+    private static final int POSITIONS = 500;
+
+    /**
+     * Tests many endgame positions, spread over several chunks and threads, together with comments,
+     * blank lines, an unreadable line, a pass and a finished game. Every position gets its line in
+     * input order, and the best move's score is the exact result of the game.
+     */
+    @Test
+    public void testAnalyze_StreamsResultsInInputOrder() throws IOException {
+        Random rnd = new Random(36);
+        List<Position> positions = new ArrayList<>();
+        StringBuilder input = new StringBuilder("# endgames\n\n");
+        int badLine = -1;
+        for (int i = 0; i < POSITIONS; i++) {
+            if (i == POSITIONS / 2) {
+                input.append("not a position\n");
+                badLine = i + 3;
+                positions.add(null);
+            }
+            Position pos = GameFixtures.randomPosition(rnd, 58);
+            positions.add(pos);
+            input.append(pos).append('\n');
+        }
+        // X to move with no move while O can play c1, then an empty board but for one disc
+        Position pass = Position.parse("OX" + "-".repeat(62) + " X");
+        Position over = Position.parse("X" + "-".repeat(63) + " X");
+        positions.add(pass);
+        positions.add(over);
+        input.append(pass).append('\n').append(over).append('\n');
+
+        StringWriter text = new StringWriter();
+        PrintWriter out = new PrintWriter(text);
+        long[] totals = PositionAnalyzer.analyze(
+                new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.US_ASCII)), 3, 60, 2, null, out);
+        out.flush();
+        String[] lines = text.toString().split("\n");
+
+        assertEquals(POSITIONS + 2, totals[0]);
+        assertEquals(1, totals[1]);
+        assertEquals(positions.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            Position pos = positions.get(i);
+            if (pos == null) {
+                assertTrue(lines[i], lines[i].startsWith("line " + badLine + ": "));
+            } else if (pos.legalMoves() == 0) {
+                assertEquals(pos.isGameOver() ? "game over" : "pass", lines[i]);
+            } else {
+                String[] best = lines[i].split(" \\| ")[0].split(" ");
+                int expected = GameFixtures.minimax(pos.getPlayerDiscs(), pos.getOpponentDiscs());
+                assertEquals(lines[i], expected * Search.FINAL_SCALE, Integer.parseInt(best[1]));
+                assertEquals(Math.min(2, Long.bitCount(pos.legalMoves())), lines[i].split(" \\| ").length);
+            }
+        }
+        assertEquals("pass", lines[lines.length - 2]);
+        assertEquals("game over", lines[lines.length - 1]);
+    }
+}
@@ -0,0 +1,225 @@
+package cpsc2150.extendedOthello.tests;
+
+import cpsc2150.extendedOthello.ai.PositionCache;
+import cpsc2150.extendedOthello.ai.Search;
+import cpsc2150.extendedOthello.models.Position;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for verifying that `PositionCache` keeps entries across reopening and rebuilds files it cannot trust.
+ */
+public class TestPositionCache {
+
+    private static final long KEY = Position.initial().hash64();
+    private static final long DATA = PositionCache.pack(-1500, 7, PositionCache.EXACT, 19);
+
+    /**
+     * Tests that a stored entry is found again, with all its fields intact.
+     */
+    @Test
+    public void testProbe_FindsStoredEntry() throws IOException {
+        Path file = Files.createTempFile("othello", ".cache");
+        try (PositionCache cache = PositionCache.open(file, 8)) {
+            assertEquals(PositionCache.MISS, cache.probe(KEY));
+            cache.store(KEY, DATA);
+
+            long data = cache.probe(KEY);
+            assertEquals(-1500, PositionCache.scoreOf(data));
+            assertEquals(7, PositionCache.depthOf(data));
+            assertEquals(PositionCache.EXACT, PositionCache.boundOf(data));
+            assertEquals(19, PositionCache.moveOf(data));
+            assertEquals(PositionCache.MISS, cache.probe(KEY + 1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that the deeper entries of a full bucket are kept when it overflows.
+     */
+    @Test
+    public void testStore_ReplacesShallowerEntry() throws IOException {
+        Path file = Files.createTempFile("othello", ".cache");
+        try (PositionCache cache = PositionCache.open(file, 1)) {
+            cache.store(1, PositionCache.pack(0, 9, PositionCache.EXACT, 0));
+            cache.store(2, PositionCache.pack(0, 3, PositionCache.EXACT, 0));
+            cache.store(3, PositionCache.pack(0, 5, PositionCache.EXACT, 0));
+
+            assertNotEquals(PositionCache.MISS, cache.probe(1));
+            assertEquals(PositionCache.MISS, cache.probe(2));
+            assertNotEquals(PositionCache.MISS, cache.probe(3));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that entries survive closing and reopening the file.
+     */
+    @Test
+    public void testOpen_KeepsEntriesAfterCleanClose() throws IOException {
+        Path file = Files.createTempFile("othello", ".cache");
+        try {
+            try (PositionCache cache = PositionCache.open(file, 8)) {
+                assertTrue(cache.wasRebuilt());
+                cache.store(KEY, DATA);
+            }
+            try (PositionCache cache = PositionCache.open(file, 8)) {
+                assertFalse(cache.wasRebuilt());
+                assertEquals(DATA, cache.probe(KEY));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that a file with a damaged slot is rebuilt instead of trusted.
+     */
+    @Test
+    public void testOpen_RebuildsCorruptedFile() throws IOException {
+        Path file = Files.createTempFile("othello", ".cache");
+        try {
+            try (PositionCache cache = PositionCache.open(file, 8)) {
+                cache.store(KEY, DATA);
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                raf.seek(raf.length() - 1);
+                raf.write(0x5A);
+            }
+            try (PositionCache cache = PositionCache.open(file, 8)) {
+                assertTrue(cache.wasRebuilt());
+                assertEquals(PositionCache.MISS, cache.probe(KEY));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that a file that was never closed, or that has a different size, is rebuilt.
+     */
+    @Test
+    public void testOpen_RebuildsUncleanOrResizedFile() throws IOException {
+        Path file = Files.createTempFile("othello", ".cache");
+        try {
+            try (PositionCache cache = PositionCache.open(file, 8)) {
+                cache.store(KEY, DATA);
+            }
+            // Clear the clean-shutdown flag (header offset 24), as a process that died without closing would
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                raf.seek(24);
+                raf.writeInt(0);
+            }
+            try (PositionCache cache = PositionCache.open(file, 8)) {
+                assertTrue(cache.wasRebuilt());
+                assertEquals(PositionCache.MISS, cache.probe(KEY));
+                cache.store(KEY, DATA);
+            }
+            try (PositionCache cache = PositionCache.open(file, 9)) {
+                assertTrue(cache.wasRebuilt());
+                assertEquals(512, cache.capacity());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that a file already open in this process cannot be opened again, and that the first
+     * cache keeps working and is kept intact.
+     */
+    @Test
+    public void testOpen_FailsWhileOpenInThisProcess() throws IOException {
+        Path file = Files.createTempFile("othello", ".cache");
+        try {
+            try (PositionCache cache = PositionCache.open(file, 8)) {
+                cache.store(KEY, DATA);
+                try {
+                    PositionCache.open(file, 8).close();
+                    fail("expected the second open to fail");
+                } catch (IOException e) {
+                    assertTrue(e.getMessage(), e.getMessage().contains("in use"));
+                }
+                assertEquals(DATA, cache.probe(KEY));
+            }
+            try (PositionCache cache = PositionCache.open(file, 8)) {
+                assertFalse(cache.wasRebuilt());
+                assertEquals(DATA, cache.probe(KEY));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that another process cannot open a cache file while this one has it open.
+     */
+    @Test
+    public void testOpen_FailsWhileOpenInAnotherProcess() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("othello", ".cache");
+        try {
+            try (PositionCache cache = PositionCache.open(file, PositionCache.DEFAULT_SLOT_BITS)) {
+                cache.store(KEY, DATA);
+                Process other = new ProcessBuilder(
+                        Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                        "-cp", System.getProperty("java.class.path"),
+                        "cpsc2150.extendedOthello.tools.PositionAnalyzer", "--cache", file.toString())
+                        .redirectErrorStream(true)
+                        .start();
+                other.getOutputStream().close();
+                String output = new String(other.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+
+                assertEquals(output, 2, other.waitFor());
+                assertTrue(output, output.contains("in use"));
+                assertEquals(DATA, cache.probe(KEY));
+            }
+            try (PositionCache cache = PositionCache.open(file, PositionCache.DEFAULT_SLOT_BITS)) {
+                assertFalse(cache.wasRebuilt());
+                assertEquals(DATA, cache.probe(KEY));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that a second run of the same search is answered from the cache written by the first,
+     * with the same expected line.
+     */
+    @Test
+    public void testSearch_WarmRunSkipsWork() throws IOException {
+        Path file = Files.createTempFile("othello", ".cache");
+        Position start = Position.initial().play(20);
+        try {
+            Search.Result cold;
+            try (PositionCache cache = PositionCache.open(file, 16)) {
+                cold = new Search(16, cache).search(start.getPlayerDiscs(), start.getOpponentDiscs(),
+                        System.nanoTime() + 60_000_000_000L, 6);
+            }
+            try (PositionCache cache = PositionCache.open(file, 16)) {
+                Search.Result warm = new Search(16, cache).search(start.getPlayerDiscs(), start.getOpponentDiscs(),
+                        System.nanoTime() + 60_000_000_000L, 6);
+                assertEquals(cold.move, warm.move);
+                assertEquals(cold.score, warm.score);
+                assertTrue(cold.nodes > 0);
+                assertEquals(0, warm.nodes);
+                // The cache holds the positions searched at least 3 deep, so the line is known that far
+                assertTrue(Arrays.toString(warm.pv), warm.pv.length >= 3);
+                assertArrayEquals(Arrays.copyOf(cold.pv, 3), Arrays.copyOf(warm.pv, 3));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
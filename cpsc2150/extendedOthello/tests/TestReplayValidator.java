@@ -0,0 +1,170 @@
+package cpsc2150.extendedOthello.tests;
+
+import cpsc2150.extendedOthello.tools.ChunkPipeline;
+import cpsc2150.extendedOthello.tools.ReplayValidator;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for verifying the ordered parallel `ChunkPipeline` and the game checks of `ReplayValidator`.
+ */
+public class TestReplayValidator {
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String validate(String archive, int threads, long[] counts) throws IOException {
+        StringWriter text = new StringWriter();
+        PrintWriter out = new PrintWriter(text);
+        ReplayValidator.Result result = ReplayValidator.validate(stream(archive), threads, out);
+        out.flush();
+        counts[0] = result.getGames();
+        counts[1] = result.getMoves();
+        counts[2] = result.getRejected();
+        return text.toString();
+    }
+
+    /**
+     * Tests that complete games are accepted with or without recorded passes and score.
+     */
+    @Test
+    public void testValidate_AcceptsCompleteGames() throws IOException {
+        String archive = GameFixtures.fullGame(true) + " " + GameFixtures.finalScore() + "\n" + GameFixtures.fullGame(false) + "\n";
+        long[] counts = new long[3];
+
+        assertEquals("", validate(archive, 2, counts));
+        assertEquals(2, counts[0]);
+        assertEquals(0, counts[2]);
+        assertEquals(2 * GameFixtures.fullGame(false).split(" ").length, counts[1]);
+    }
+
+    /**
+     * Tests that a game that stops while a player can still move is rejected even without a score,
+     * and that the next game is still read.
+     */
+    @Test
+    public void testValidate_RejectsTruncatedGame() throws IOException {
+        String archive = "e3 f3\n" + GameFixtures.fullGame(false) + "\n";
+        long[] counts = new long[3];
+
+        assertEquals("line 1, token 3 (X): game ends while X can still move\n", validate(archive, 1, counts));
+        assertEquals(2, counts[0]);
+        assertEquals(1, counts[2]);
+    }
+
+    /**
+     * Tests the diagnostics of wrong moves, passes and scores, in archive order.
+     */
+    @Test
+    public void testValidate_DiagnosticsInOrder() throws IOException {
+        String full = GameFixtures.fullGame(false);
+        String archive = "f3\n"
+                + "pass\n"
+                + "e3 e3\n"
+                + full + " :1-63\n"
+                + "e3 :4-1\n"
+                + full + " " + GameFixtures.finalScore() + " e3\n";
+        long[] counts = new long[3];
+
+        String[] lines = validate(archive, 4, counts).split("\n");
+        assertEquals(6, lines.length);
+        assertEquals("line 1, token 1 (X f3): move flips no discs", lines[0]);
+        assertEquals("line 2, token 1 (X): pass while X has a legal move", lines[1]);
+        assertEquals("line 3, token 2 (O e3): square is already occupied", lines[2]);
+        assertTrue(lines[3], lines[3].startsWith("line 4, token ") && lines[3].contains("recorded score 1-63"));
+        assertEquals("line 5, token 2 (O): final score recorded before the game is over", lines[4]);
+        assertTrue(lines[5], lines[5].startsWith("line 6, token ")
+                && lines[5].endsWith("moves recorded after the final score"));
+        assertEquals(6, counts[2]);
+    }
+
+    /**
+     * Tests that results reach the sink in input order, with the right line numbers, even when
+     * chunks finish out of order and a line is longer than a chunk.
+     */
+    @Test
+    public void testPipeline_KeepsInputOrder() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 1; i <= 500; i++) {
+            input.append("line ").append(i).append(i == 250 ? "-".repeat(100) : "").append('\n');
+        }
+        StringBuilder output = new StringBuilder();
+
+        new ChunkPipeline<String>(4, 32).run(stream(input.toString()), (data, length, firstLine) -> {
+            String text = new String(data, 0, length, StandardCharsets.US_ASCII);
+            assertTrue(text.startsWith("line " + firstLine));
+            LockSupport.parkNanos((firstLine * 7) % 3 * 1_000_000L);
+            return text;
+        }, output::append);
+
+        assertEquals(input.toString(), output.toString());
+    }
+
+    /**
+     * Tests that no more than two chunks per worker are read ahead of the sink.
+     */
+    @Test
+    public void testPipeline_BoundsChunksInFlight() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            input.append("0123456789\n");
+        }
+        AtomicInteger started = new AtomicInteger();
+        int[] accepted = new int[1];
+        int[] mostAhead = new int[1];
+
+        new ChunkPipeline<Integer>(2, 22).run(stream(input.toString()),
+                (data, length, firstLine) -> started.incrementAndGet(),
+                r -> {
+                    mostAhead[0] = Math.max(mostAhead[0], started.get() - accepted[0]);
+                    accepted[0]++;
+                    LockSupport.parkNanos(1_000_000L);
+                });
+
+        assertEquals(1000, accepted[0]);
+        assertTrue("read ahead " + mostAhead[0], mostAhead[0] <= 4);
+    }
+
+    /**
+     * Tests that a failing chunk makes `run` throw the chunk's own exception.
+     */
+    @Test
+    public void testPipeline_PropagatesErrors() {
+        ChunkPipeline<String> pipeline = new ChunkPipeline<>(2, 8);
+        String input = "ok\nok\nbad io\nok\n";
+
+        try {
+            pipeline.run(stream(input), (data, length, firstLine) -> {
+                if (new String(data, 0, length, StandardCharsets.US_ASCII).contains("bad")) {
+                    throw new IOException("bad chunk at line " + firstLine);
+                }
+                return "";
+            }, r -> { });
+            fail("expected an IOException");
+        } catch (IOException e) {
+            assertEquals("bad chunk at line 3", e.getMessage());
+        }
+
+        try {
+            pipeline.run(stream(input), (data, length, firstLine) -> {
+                throw new IllegalStateException("broken");
+            }, r -> { });
+            fail("expected an IllegalStateException");
+        } catch (IOException e) {
+            fail("expected the chunk's own exception, got " + e);
+        } catch (IllegalStateException e) {
+            assertEquals("broken", e.getMessage());
+        }
+    }
+}
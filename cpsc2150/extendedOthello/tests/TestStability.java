@@ -0,0 +1,93 @@
+package cpsc2150.extendedOthello.tests;
+
+import cpsc2150.extendedOthello.models.*;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for verifying the stable-disc analysis in `Stability`.
+ */
+public class TestStability {
+
+    /**
+     * Helper method that returns the bit of a square.
+     *
+     * @param r the row of the square
+     * @param c the column of the square
+     * @return the bitboard with only that square set
+     */
+    private long bit(int r, int c) {
+        return 1L << (r * 8 + c);
+    }
+
+    /**
+     * Tests that no disc of the starting position is stable.
+     */
+    @Test
+    public void testStableDiscs_InitialNone() {
+        IOthelloBoard board = new OthelloBoard();
+        assertEquals(0L, Stability.stableDiscs(board, 'X'));
+        assertEquals(0L, Stability.stableDiscs(board, 'O'));
+    }
+
+    /**
+     * Tests that every disc of a full board is stable.
+     */
+    @Test
+    public void testStableDiscs_FullBoardAll() {
+        long x = 0x00FF00FF00FF00FFL;
+        long o = ~x;
+        assertEquals(32, Stability.stableCount(x, o));
+        assertEquals(32, Stability.stableCount(o, x));
+        assertEquals(0, Stability.scoreUpperBound(x, o));
+        assertEquals(0, Stability.scoreLowerBound(x, o));
+    }
+
+    /**
+     * Tests that stability spreads along an edge from a corner but not past an opponent disc.
+     */
+    @Test
+    public void testStableDiscs_CornerAnchoredEdge() {
+        long x = bit(0, 0) | bit(0, 1) | bit(0, 2) | bit(1, 0);
+        long o = bit(0, 4) | bit(1, 1);
+        assertEquals(bit(0, 0) | bit(0, 1) | bit(0, 2) | bit(1, 0), Stability.stableDiscs(x, o));
+        assertEquals(0L, Stability.stableDiscs(o, x));
+    }
+
+    /**
+     * Tests that discs reported as stable keep their color through random legal continuations.
+     */
+    @Test
+    public void testStableDiscs_NeverFlippedInRandomGames() {
+        Random rnd = new Random(4);
+        for (int game = 0; game < 300; game++) {
+            long[] sides = {0x0000001008000000L, 0x0000000810000000L};
+            int toMove = 0;
+            long stableBefore = 0;
+            int owner = 0;
+            int checkAt = 20 + rnd.nextInt(35);
+
+            for (int ply = 0; ply < 70; ply++) {
+                if (ply == checkAt) {
+                    owner = toMove;
+                    stableBefore = Stability.stableDiscs(sides[owner], sides[1 - owner]);
+                }
+                long moves = Bitboards.legalMoves(sides[toMove], sides[1 - toMove]);
+                if (moves == 0) {
+                    if (Bitboards.legalMoves(sides[1 - toMove], sides[toMove]) == 0) break;
+                    toMove = 1 - toMove;
+                    continue;
+                }
+                int sq = GameFixtures.randomMove(rnd, moves);
+                long flipped = Bitboards.flips(sides[toMove], sides[1 - toMove], sq);
+                sides[toMove] |= flipped | (1L << sq);
+                sides[1 - toMove] &= ~flipped;
+                toMove = 1 - toMove;
+            }
+            assertEquals(stableBefore, sides[owner] & stableBefore);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package cpsc2150.extendedOthello.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The `ChunkPipeline` class streams a line-based input through a pool of worker threads.
+ * The input is cut into chunks of whole lines, each chunk is processed on a worker, and the
+ * results are handed to the sink on the calling thread in input order.
+ *
+ * At most two chunks per worker are in flight at a time, so a slow sink or slow workers
+ * hold back the reader instead of letting the whole input pile up in memory.
+ *
+ * @param <R> The type of result produced for each chunk.
+ */
+public class ChunkPipeline<R> {
+
+    /**
+     * Work done on a worker thread for one chunk of input.
+     *
+     * @param <R> The type of result produced for the chunk.
+     */
+    public interface ChunkTask<R> {
+        /**
+         * Processes one chunk.
+         *
+         * @param data The chunk's bytes; it always ends at a line break or at the end of the input.
+         * @param length The number of bytes of `data` in use.
+         * @param firstLine The line number of the chunk's first line in the whole input.
+         * @return the result for the chunk.
+         * @throws IOException if the chunk cannot be processed.
+         */
+        R process(byte[] data, int length, int firstLine) throws IOException;
+    }
+
+    /**
+     * Receives chunk results, in input order, on the thread that called `run`.
+     *
+     * @param <R> The type of result produced for each chunk.
+     */
+    public interface Sink<R> {
+        /**
+         * Consumes the result of the next chunk.
+         *
+         * @param result The chunk's result.
+         * @throws IOException if the result cannot be written.
+         */
+        void accept(R result) throws IOException;
+    }
+
+    private final int threads;
+    private final int chunkSize;
+
+    /**
+     * Constructs a pipeline.
+     *
+     * @param threads The number of worker threads (at least 1).
+     * @param chunkSize The target size of each chunk in bytes.
+     */
+    public ChunkPipeline(int threads, int chunkSize) {
+        this.threads = Math.max(1, threads);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Reads the whole input, processes it in chunks and passes every result to the sink.
+     *
+     * @param in The input to process.
+     * @param task The work to do for each chunk.
+     * @param sink The consumer of the results.
+     * @throws IOException if reading, processing or writing fails.
+     */
+    public void run(InputStream in, ChunkTask<R> task, Sink<R> sink) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "chunk-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        ArrayDeque<Future<R>> inFlight = new ArrayDeque<>();
+
+        try {
+            byte[] buf = new byte[chunkSize];
+            int used = 0;
+            int line = 1;
+            boolean eof = false;
+
+            while (!eof) {
+                int n = in.read(buf, used, buf.length - used);
+                if (n < 0) {
+                    eof = true;
+                } else {
+                    used += n;
+                    if (used < buf.length) {
+                        continue;
+                    }
+                }
+
+                // Cut the chunk after its last complete line; the rest starts the next chunk
+                int cut = used;
+                if (!eof) {
+                    while (cut > 0 && buf[cut - 1] != '\n') {
+                        cut--;
+                    }
+                    if (cut == 0) {
+                        // A single line longer than the buffer: grow it and keep reading
+                        buf = Arrays.copyOf(buf, buf.length * 2);
+                        continue;
+                    }
+                }
+                if (cut == 0) {
+                    break;
+                }
+
+                byte[] chunk = Arrays.copyOf(buf, cut);
+                int length = cut;
+                int firstLine = line;
+                for (int i = 0; i < length; i++) {
+                    if (chunk[i] == '\n') line++;
+                }
+
+                if (inFlight.size() >= threads * 2) {
+                    sink.accept(await(inFlight.removeFirst()));
+                }
+                inFlight.addLast(pool.submit(() -> task.process(chunk, length, firstLine)));
+
+                System.arraycopy(buf, cut, buf, 0, used - cut);
+                used -= cut;
+            }
+
+            while (!inFlight.isEmpty()) {
+                sink.accept(await(inFlight.removeFirst()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for a chunk to finish and unwraps any failure it had.
+     */
+    private R await(Future<R> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a chunk", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
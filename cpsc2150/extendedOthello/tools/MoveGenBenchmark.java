@@ -0,0 +1,140 @@
+package cpsc2150.extendedOthello.tools;
+
+import cpsc2150.extendedOthello.models.*;
+
+import java.util.Random;
+
+/**
+ * The `MoveGenBenchmark` class measures `BatchMoveGenerator` against looping the single-board
+ * `OthelloBoard` code over the same positions. The positions come from random legal games.
+ *
+ * Each measurement is warmed up first and then repeated, and the best time per position is
+ * reported. With the `vector/` sources compiled, run it once with `--add-modules jdk.incubator.vector`
+ * and once without to compare the vector kernel with the scalar fallback.
+ */
+public class MoveGenBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 20;
+
+    /** Keeps results alive so the JIT cannot drop the measured work. */
+    private static long sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Command line arguments: `[positions]`, 65536 by default.
+     */
+    public static void main(String[] args) {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 65536;
+        BoardPosition[] positions = new BoardPosition[64];
+        for (int i = 0; i < 64; i++) {
+            positions[i] = new BoardPosition(i / 8, i % 8);
+        }
+
+        OthelloBoard[] boards = new OthelloBoard[count];
+        char[] toMove = new char[count];
+        long[] player = new long[count];
+        long[] opponent = new long[count];
+        int[] squares = new int[count];
+        randomPositions(new Random(2150), positions, boards, toMove, player, opponent, squares);
+
+        long[] moves = new long[count];
+        long[] flips = new long[count];
+        int[] playerCounts = new int[count];
+        int[] opponentCounts = new int[count];
+
+        System.out.println("Positions: " + count + " | Vector kernel: " + BatchMoveGenerator.isVectorized());
+
+        double boardNs = measure(count, () -> {
+            long acc = 0;
+            for (int i = 0; i < count; i++) {
+                OthelloBoard board = boards[i];
+                long legal = 0;
+                for (int sq = 0; sq < 64; sq++) {
+                    if (board.isLegalMove(toMove[i], positions[sq])) {
+                        legal |= 1L << sq;
+                    }
+                }
+                acc += legal + board.getScore()[0];
+            }
+            sink += acc;
+        });
+        report("OthelloBoard loop (legal moves + counts)", boardNs);
+
+        double batchNs = measure(count, () -> {
+            BatchMoveGenerator.legalMoves(player, opponent, moves, count);
+            BatchMoveGenerator.discCounts(player, opponent, playerCounts, opponentCounts, count);
+            sink += moves[count - 1] + playerCounts[count - 1];
+        });
+        report("BatchMoveGenerator (legal moves + counts)", batchNs);
+
+        double flipNs = measure(count, () -> {
+            BatchMoveGenerator.flips(player, opponent, squares, flips, count);
+            sink += flips[count - 1];
+        });
+        report("BatchMoveGenerator (flips)", flipNs);
+
+        System.out.printf("Speedup over OthelloBoard: %.1fx%n", boardNs / batchNs);
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * Fills the arrays with positions reached by random legal moves, plus one legal move for each.
+     */
+    private static void randomPositions(Random rnd, BoardPosition[] positions, OthelloBoard[] boards,
+                                        char[] toMove, long[] player, long[] opponent, int[] squares) {
+        for (int i = 0; i < boards.length; i++) {
+            OthelloBoard board = new OthelloBoard();
+            char p = OthelloBoard.PLAYER1;
+            int plies = rnd.nextInt(56);
+            for (int ply = 0; ply < plies; ply++) {
+                char o = (p == OthelloBoard.PLAYER1) ? OthelloBoard.PLAYER2 : OthelloBoard.PLAYER1;
+                long legal = Bitboards.legalMoves(Bitboards.fromBoard(board, p), Bitboards.fromBoard(board, o));
+                if (legal == 0) {
+                    break;
+                }
+                board.placeToken(p, positions[pickBit(rnd, legal)]);
+                p = o;
+            }
+
+            char o = (p == OthelloBoard.PLAYER1) ? OthelloBoard.PLAYER2 : OthelloBoard.PLAYER1;
+            boards[i] = board;
+            toMove[i] = p;
+            player[i] = Bitboards.fromBoard(board, p);
+            opponent[i] = Bitboards.fromBoard(board, o);
+            long legal = Bitboards.legalMoves(player[i], opponent[i]);
+            squares[i] = (legal == 0) ? -1 : pickBit(rnd, legal);
+        }
+    }
+
+    private static int pickBit(Random rnd, long bits) {
+        int skip = rnd.nextInt(Long.bitCount(bits));
+        for (int i = 0; i < skip; i++) {
+            bits &= bits - 1;
+        }
+        return Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Runs the work repeatedly and returns the best time per position in nanoseconds.
+     */
+    private static double measure(int count, Runnable work) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            work.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            work.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) best / count;
+    }
+
+    private static void report(String name, double nsPerPosition) {
+        System.out.printf("%-45s %8.1f ns/position%n", name, nsPerPosition);
+    }
+}
@@ -0,0 +1,207 @@
+package cpsc2150.extendedOthello.tools;
+
+import cpsc2150.extendedOthello.ai.PositionCache;
+import cpsc2150.extendedOthello.ai.Search;
+import cpsc2150.extendedOthello.models.MoveReader;
+import cpsc2150.extendedOthello.models.Position;
+
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+/**
+ * The `PositionAnalyzer` class scores the best moves of a stream of positions without a user.
+ * Each input line is one position in the `Position.parse` format: the 64 cells in `getBoardCopy()`
+ * order, then the player to move, e.g. `---------------------------XO------OX--------------------------- X`.
+ * Blank lines and lines starting with '#' are skipped.
+ *
+ * For each position one line is written, in input order, listing the top moves best first with
+ * their scores and expected continuations, e.g. `e3 +60 (f3 d2) | c5 +60 (c4 c3)`. Scores are from
+ * the view of the player to move; a won-by-one final position is worth `Search.FINAL_SCALE`.
+ * A player with no legal move gets `pass` or `game over`, and an unreadable line gets an error
+ * line. Results found in the transposition table or the cache may come from deeper searches than
+ * asked for, so scores can differ slightly between runs.
+ *
+ * Chunks of the input are analyzed in parallel, with a bounded number in flight, so the input
+ * is never held in memory. Each worker thread has its own `Search`; all of them may share one
+ * persistent `PositionCache`, so positions met in earlier runs are not searched again.
+ */
+public class PositionAnalyzer {
+
+    private static final int CHUNK_SIZE = 1 << 13;
+    private static final int TABLE_BITS = 18;
+
+    /** The default depth each move is searched to. */
+    public static final int DEFAULT_DEPTH = 6;
+
+    /** The default number of moves reported per position. */
+    public static final int DEFAULT_TOP = 3;
+
+    /**
+     * The outcome of analyzing one chunk of input.
+     */
+    static class Result {
+        long positions;
+        long errors;
+        final StringBuilder output = new StringBuilder();
+    }
+
+    /**
+     * Analyzes a file of positions (or standard input when no file is given), prints one result line
+     * per position and then the totals. The exit status is 1 if any line could not be read.
+     *
+     * @param args Command line arguments: `[--threads n] [--depth d] [--top k] [--cache file] [file]`.
+     */
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int depth = DEFAULT_DEPTH;
+        int top = DEFAULT_TOP;
+        String cacheFile = null;
+        String file = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--depth") && i + 1 < args.length) {
+                depth = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--top") && i + 1 < args.length) {
+                top = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--cache") && i + 1 < args.length) {
+                cacheFile = args[++i];
+            } else {
+                file = args[i];
+            }
+        }
+
+        PrintWriter out = new PrintWriter(new BufferedOutputStream(System.out, 1 << 16), false);
+        long start = System.nanoTime();
+        long[] totals;
+        PositionCache cache = null;
+        try (InputStream in = (file == null) ? System.in : new FileInputStream(file)) {
+            if (cacheFile != null) {
+                cache = PositionCache.open(Paths.get(cacheFile), PositionCache.DEFAULT_SLOT_BITS);
+            }
+            totals = analyze(in, threads, depth, top, cache, out);
+        } catch (IOException e) {
+            System.err.println("Could not analyze positions: " + e.getMessage());
+            System.exit(2);
+            return;
+        } finally {
+            if (cache != null) {
+                try {
+                    cache.close();
+                } catch (IOException e) {
+                    System.err.println("Could not save cache: " + e.getMessage());
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        out.printf("Positions: %d | Errors: %d | %.0f positions/s%n",
+                totals[0], totals[1], totals[0] / Math.max(seconds, 1e-9));
+        out.flush();
+        if (totals[1] > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Analyzes every position of the input, writing one line per position in input order.
+     *
+     * @param in The positions to read.
+     * @param threads The number of worker threads.
+     * @param depth The depth each move is searched to.
+     * @param top The number of moves to report per position.
+     * @param cache A persistent cache shared by all workers, or null for none.
+     * @param out Where the result lines are written.
+     * @return the number of positions read and the number of unreadable lines.
+     * @throws IOException if the input cannot be read.
+     */
+    public static long[] analyze(InputStream in, int threads, int depth, int top, PositionCache cache,
+                                 PrintWriter out) throws IOException {
+        ThreadLocal<Search> searches = ThreadLocal.withInitial(() -> new Search(TABLE_BITS, cache));
+        long[] totals = new long[2];
+        new ChunkPipeline<Result>(threads, CHUNK_SIZE).run(in,
+                (data, length, firstLine) -> analyzeChunk(data, length, firstLine, searches.get(), depth, top),
+                r -> {
+                    totals[0] += r.positions;
+                    totals[1] += r.errors;
+                    out.print(r.output);
+                });
+        return totals;
+    }
+
+    /**
+     * Analyzes all positions of one chunk with the given search.
+     */
+    private static Result analyzeChunk(byte[] data, int length, int firstLine, Search search, int depth, int top) {
+        Result result = new Result();
+        int line = firstLine;
+        int begin = 0;
+        while (begin < length) {
+            int end = begin;
+            while (end < length && data[end] != '\n') {
+                end++;
+            }
+            int stop = (end > begin && data[end - 1] == '\r') ? end - 1 : end;
+            if (stop > begin && data[begin] != '#' && !isBlank(data, begin, stop)) {
+                try {
+                    Position pos = Position.parse(new String(data, begin, stop - begin, StandardCharsets.ISO_8859_1));
+                    result.positions++;
+                    describe(pos, search.analyze(pos.getPlayerDiscs(), pos.getOpponentDiscs(), depth, top),
+                            result.output);
+                } catch (IllegalArgumentException e) {
+                    result.errors++;
+                    result.output.append("line ").append(line).append(": ").append(e.getMessage());
+                }
+                result.output.append('\n');
+            }
+            begin = end + 1;
+            line++;
+        }
+        return result;
+    }
+
+    private static boolean isBlank(byte[] data, int begin, int end) {
+        for (int i = begin; i < end; i++) {
+            if (data[i] != ' ' && data[i] != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Appends the result line for one position.
+     */
+    private static void describe(Position pos, Search.Result[] moves, StringBuilder out) {
+        if (moves.length == 0) {
+            out.append(pos.isGameOver() ? "game over" : "pass");
+            return;
+        }
+        for (int i = 0; i < moves.length; i++) {
+            if (i > 0) {
+                out.append(" | ");
+            }
+            Search.Result r = moves[i];
+            out.append(MoveReader.toNotation(r.move)).append(' ');
+            if (r.score >= 0) {
+                out.append('+');
+            }
+            out.append(r.score);
+            if (r.pv.length > 1) {
+                out.append(" (");
+                for (int k = 1; k < r.pv.length; k++) {
+                    if (k > 1) {
+                        out.append(' ');
+                    }
+                    out.append(MoveReader.toNotation(r.pv[k]));
+                }
+                out.append(')');
+            }
+        }
+    }
+}
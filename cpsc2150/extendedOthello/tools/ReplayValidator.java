@@ -0,0 +1,168 @@
+package cpsc2150.extendedOthello.tools;
+
+import cpsc2150.extendedOthello.models.*;
+
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+
+/**
+ * The `ReplayValidator` class checks archives of recorded games for legality. Every game is replayed
+ * by a `GameReplay`, and it is rejected at the first move that breaks the rules:
+ * a move onto an occupied square, a move that flips nothing, a pass while the player still
+ * has a legal move, a move after the game is over, a recorded final score that does not
+ * match the board, or a game that stops while a player can still move.
+ *
+ * The archive uses the `MoveReader` format, one game per line. A player without a legal move
+ * may either record "pass" or simply be skipped. Chunks of the archive are validated in parallel,
+ * and each worker thread reuses a single board for all of its games.
+ */
+public class ReplayValidator {
+
+    private static final int CHUNK_SIZE = 1 << 18;
+
+    /** One replay, and so one board, per worker thread, reused for all of its games. */
+    private static final ThreadLocal<GameReplay> REPLAYS =
+            ThreadLocal.withInitial(() -> new GameReplay(new OthelloBoard(true)));
+
+    /**
+     * The outcome of validating one chunk of the archive, or the totals of a whole archive.
+     */
+    public static class Result {
+        long games;
+        long moves;
+        long rejected;
+        final StringBuilder diagnostics = new StringBuilder();
+
+        /**
+         * @return the number of games read.
+         */
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * @return the number of moves in the games that were accepted.
+         */
+        public long getMoves() {
+            return moves;
+        }
+
+        /**
+         * @return the number of games rejected.
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Adds another chunk's counts to this one.
+         *
+         * @param other The result to add.
+         */
+        void add(Result other) {
+            games += other.games;
+            moves += other.moves;
+            rejected += other.rejected;
+        }
+    }
+
+    /**
+     * Validates an archive file (or standard input when no file is given) and prints a diagnostic
+     * line for every rejected game followed by the totals. The exit status is 1 if any game was rejected.
+     *
+     * @param args Command line arguments: `[--threads n] [file]`.
+     */
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        String file = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                file = args[i];
+            }
+        }
+
+        PrintWriter out = new PrintWriter(new BufferedOutputStream(System.out, 1 << 16), false);
+        long start = System.nanoTime();
+        Result total;
+        try (InputStream in = (file == null) ? System.in : new FileInputStream(file)) {
+            total = validate(in, threads, out);
+        } catch (IOException e) {
+            System.err.println("Could not read archive: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        out.printf("Games: %d | Moves: %d | Rejected: %d | %.0f games/s%n",
+                total.games, total.moves, total.rejected, total.games / Math.max(seconds, 1e-9));
+        out.flush();
+        if (total.rejected > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Validates every game of an archive, writing one diagnostic line per rejected game in archive order.
+     *
+     * @param in The archive to read.
+     * @param threads The number of worker threads.
+     * @param out Where the diagnostics are written.
+     * @return the totals for the whole archive.
+     * @throws IOException if the archive cannot be read.
+     */
+    public static Result validate(InputStream in, int threads, PrintWriter out) throws IOException {
+        Result total = new Result();
+        new ChunkPipeline<Result>(threads, CHUNK_SIZE).run(in, ReplayValidator::validateChunk, r -> {
+            total.add(r);
+            out.print(r.diagnostics);
+        });
+        return total;
+    }
+
+    /**
+     * Validates all games of one chunk on the calling thread's board.
+     *
+     * @param data The chunk's bytes.
+     * @param length The number of bytes in use.
+     * @param firstLine The line number of the chunk's first line.
+     * @return the chunk's counts and diagnostics.
+     * @throws IOException never, since the chunk is already in memory.
+     */
+    static Result validateChunk(byte[] data, int length, int firstLine) throws IOException {
+        MoveReader reader = new MoveReader(data, length, firstLine);
+        GameReplay replay = REPLAYS.get();
+        Result result = new Result();
+
+        while (true) {
+            int token = reader.next();
+            if (token == MoveReader.END_OF_INPUT) {
+                return result;
+            }
+            result.games++;
+            if (replay.replay(reader, token)) {
+                result.moves += replay.getMoves();
+            } else {
+                result.rejected++;
+                reject(replay, result);
+            }
+        }
+    }
+
+    /**
+     * Writes the diagnostic line of a rejected game.
+     */
+    private static void reject(GameReplay replay, Result result) {
+        result.diagnostics.append("line ").append(replay.getLineNumber())
+                .append(", token ").append(replay.getTokenIndex())
+                .append(" (").append(replay.getPlayer());
+        if (replay.getSquare() >= 0) {
+            result.diagnostics.append(' ').append(MoveReader.toNotation(replay.getSquare()));
+        }
+        result.diagnostics.append("): ").append(replay.getReason()).append('\n');
+    }
+}
@@ -1,26 +1,118 @@
 package cpsc2150.extendedOthello.views;
 
+import cpsc2150.extendedOthello.ai.ComputerPlayer;
+import cpsc2150.extendedOthello.ai.PositionCache;
+import cpsc2150.extendedOthello.metrics.EngineMetrics;
 import cpsc2150.extendedOthello.models.*;
 
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 /**
  * The `OthelloFE` (front-end) class handles the user interaction and controls the flow of the game.
  * It manages the game loop, player turns, input validation, and updates the board after each move.
  * The game alternates between two players and ends when both players have no valid moves left.
+ *
+ * Besides the interactive game, the front end has a non-interactive batch mode that replays
+ * scripted games (see `MoveReader` for the input format) and checks them with the full rules.
  */
 public class OthelloFE {
 
+    private static final String USAGE = "Usage: OthelloFE [--batch [file] [--per-game]]"
+            + " [--computer X|O [--move-ms n] [--game-ms n] [--cache file]]";
+
     /**
      * Main method that runs the Othello game. It initializes the game board, manages player turns,
      * validates moves, and checks for the game over condition.
+     *
+     * Passing `--batch [file]` replays scripted games from the file (or standard input when no
+     * file is given) instead of playing interactively. Only the final totals are printed unless
+     * `--per-game` is also passed, in which case a summary line is printed for every game.
+     *
+     * Passing `--computer X` or `--computer O` lets the computer play that side. It thinks for at most
+     * `--move-ms` milliseconds per move and `--game-ms` milliseconds per game, and ponders its next
+     * move while the human is typing. With `--cache file` it keeps its search results in that file
+     * (see `PositionCache`) and reuses them in later games. Any other argument starting with "--",
+     * a side other than X or O, or a time limit that is not a positive whole number is rejected with
+     * a usage message and exit status 2.
      * 
-     * @param args Command line arguments (not used in this implementation).
+     * @param args Command line arguments: `--batch [file] [--per-game]` for batch mode, otherwise
+     *             optionally `--computer X|O [--move-ms n] [--game-ms n] [--cache file]`.
      */
     public static void main(String[] args) {
+        boolean batch = false;
+        boolean perGame = false;
+        String file = null;
+        char computerSide = 0;
+        long moveMillis = ComputerPlayer.DEFAULT_MOVE_MILLIS;
+        long gameMillis = ComputerPlayer.DEFAULT_GAME_MILLIS;
+        String cacheFile = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--batch")) {
+                batch = true;
+            } else if (args[i].equals("--per-game")) {
+                perGame = true;
+            } else if (args[i].equals("--computer") && i + 1 < args.length) {
+                String side = args[++i].toUpperCase();
+                if (!side.equals("X") && !side.equals("O")) {
+                    usageError("--computer must be X or O, not \"" + args[i] + "\"");
+                    return;
+                }
+                computerSide = side.charAt(0);
+            } else if ((args[i].equals("--move-ms") || args[i].equals("--game-ms")) && i + 1 < args.length) {
+                long millis = parseMillis(args[i + 1]);
+                if (millis <= 0) {
+                    usageError(args[i] + " must be a positive number of milliseconds, not \"" + args[i + 1] + "\"");
+                    return;
+                }
+                if (args[i].equals("--move-ms")) {
+                    moveMillis = millis;
+                } else {
+                    gameMillis = millis;
+                }
+                i++;
+            } else if (args[i].equals("--cache") && i + 1 < args.length) {
+                cacheFile = args[++i];
+            } else if (args[i].startsWith("--")) {
+                usageError("Unknown or incomplete option: " + args[i]);
+                return;
+            } else {
+                file = args[i];
+            }
+        }
+
+        if (batch) {
+            PrintWriter out = new PrintWriter(new BufferedOutputStream(System.out, 1 << 16), false);
+            try (InputStream in = (file == null) ? System.in : new FileInputStream(file)) {
+                runBatch(in, perGame, out);
+            } catch (IOException e) {
+                System.err.println("Could not read games: " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+
         Scanner sc = new Scanner(System.in);
-        IOthelloBoard gameBoard = new OthelloBoard();
+        IOthelloBoard gameBoard = new OthelloBoard(true);
         char currentPlayer = 'X';
+        long gameStart = System.nanoTime();
+        PositionCache cache = null;
+        ComputerPlayer computer = null;
+        if (computerSide == 'X' || computerSide == 'O') {
+            if (cacheFile != null) {
+                try {
+                    cache = PositionCache.open(Paths.get(cacheFile), PositionCache.DEFAULT_SLOT_BITS);
+                } catch (IOException e) {
+                    System.err.println("Could not open cache, playing without it: " + e.getMessage());
+                }
+            }
+            computer = new ComputerPlayer(computerSide, moveMillis, gameMillis, cache);
+        }
 
         System.out.println("Welcome to Othello!");
 
@@ -30,12 +122,12 @@ public class OthelloFE {
             System.out.println(gameBoard.toString());
 
             // Check if current player has any valid moves left
-            if (!hasAnyValidMoves(gameBoard, currentPlayer)) {
+            if (!gameBoard.hasLegalMove(currentPlayer)) {
                 System.out.println("No valid moves left for player " + currentPlayer + ".");
                 currentPlayer = (currentPlayer == 'X') ? 'O' : 'X';
 
                 // Check if the opponent also has no valid moves (game over condition)
-                if (!hasAnyValidMoves(gameBoard, currentPlayer)) {
+                if (!gameBoard.hasLegalMove(currentPlayer)) {
                     System.out.println("No valid moves left for both players. Game Over!");
                     break;
                 } else {
@@ -44,38 +136,21 @@ public class OthelloFE {
                 }
             }
 
-            // Prompt current player for their move
-            System.out.println("Player " + currentPlayer + ", it's your turn.");
             BoardPosition move;
 
-            while (true) {
-                // Get valid row and column from user
-                System.out.print("Enter row (0–7): ");
-                int row = getValidInt(sc);
-
-                System.out.print("Enter column (0–7): ");
-                int col = getValidInt(sc);
-
-                if (!BoardPosition.isInBounds(row, col)) {
-                    System.out.println("Position out of bounds. Try again.");
-                    continue;
+            if (computer != null && currentPlayer == computer.getSide()) {
+                move = BoardPosition.of(computer.chooseMove(Position.fromBoard(gameBoard, currentPlayer)));
+                System.out.println("Computer (" + currentPlayer + ") plays row " + move.getRow() + ", column "
+                        + move.getColumn() + (computer.wasPonderHit() ? " (pondered)." : "."));
+            } else {
+                // Think about the next move while the human types
+                if (computer != null) {
+                    computer.startPondering(Position.fromBoard(gameBoard, currentPlayer));
                 }
 
-                move = new BoardPosition(row, col);
-
-                // Check if position is valid
-                if (!gameBoard.isPositionValid(move)) {
-                    System.out.println("Position is invalid or already occupied. Try again.");
-                    continue;
-                }
-
-                // Ensure move is adjacent to an opponent token
-                if (!hasAdjacentOpponent(gameBoard, move, currentPlayer)) {
-                    System.out.println("Invalid move. Must be adjacent to opponent token. Try again.");
-                    continue;
-                }
-
-                break;
+                // Prompt current player for their move
+                System.out.println("Player " + currentPlayer + ", it's your turn.");
+                move = readMove(sc, gameBoard, currentPlayer);
             }
 
             // Place the token and flip the opponent's tokens
@@ -95,75 +170,161 @@ public class OthelloFE {
             currentPlayer = (currentPlayer == 'X') ? 'O' : 'X';
         }
 
+        EngineMetrics.gameCompleted(System.nanoTime() - gameStart);
+        if (computer != null) {
+            computer.shutdown();
+        }
+        if (cache != null) {
+            try {
+                cache.close();
+            } catch (IOException e) {
+                System.err.println("Could not save cache: " + e.getMessage());
+            }
+        }
+
         // Close the scanner object to avoid memory leaks
         sc.close();
     }
 
     /**
-     * Prompts the user for a valid integer input and ensures the input is an integer.
-     * If the input is not a valid integer, the user is asked to enter a valid integer.
-     * 
-     * @param sc The scanner object to read input.
-     * @return The valid integer input from the user.
+     * Prints the problem with the command line and the usage message, then exits with status 2.
+     *
+     * @param message What is wrong with the arguments.
      */
-    private static int getValidInt(Scanner sc) {
-        while (!sc.hasNextInt()) {
-            System.out.print("Please enter a valid integer: ");
-            sc.next(); // Discard invalid input
+    private static void usageError(String message) {
+        System.err.println(message);
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+
+    /**
+     * Parses a time limit given on the command line.
+     *
+     * @param value The argument text.
+     * @return the number of milliseconds, or -1 if the text is not a whole number.
+     */
+    private static long parseMillis(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
         }
-        return sc.nextInt();
     }
 
     /**
-     * Checks if a given move is adjacent to at least one opponent's token.
-     * This is required for the move to be valid in Othello.
-     * 
-     * @param board The current Othello game board.
-     * @param pos The position to check for an adjacent opponent token.
-     * @param player The current player ('X' or 'O').
-     * @return true if the position is adjacent to at least one opponent's token; false otherwise.
+     * Replays every scripted game from the input and prints the results. Each game is checked by a
+     * `GameReplay`, with the same rules as `ReplayValidator`: every move must be legal, a recorded pass
+     * or final score must match the board, and a game must not stop while a player can still move.
+     * A player without any valid move may also be skipped without a recorded pass. A game stops at its
+     * first rejected move.
+     *
+     * @param in The stream holding one game per line.
+     * @param perGame true to print a summary line for every game; false to print only the totals.
+     * @param out Where the results are printed; it is flushed at the end.
+     * @throws IOException if the input cannot be read.
      */
-    private static boolean hasAdjacentOpponent(IOthelloBoard board, BoardPosition pos, char player) {
-        char opponent = (player == 'X') ? 'O' : 'X';
-        int[] directions = {-1, 0, 1};
-
-        // Check all 8 possible directions for an opponent token
-        for (int dr : directions) {
-            for (int dc : directions) {
-                if (dr == 0 && dc == 0) continue; // Skip checking the current position
-
-                int newRow = pos.getRow() + dr;
-                int newCol = pos.getColumn() + dc;
-
-                if (BoardPosition.isInBounds(newRow, newCol)) {
-                    BoardPosition adjPos = new BoardPosition(newRow, newCol);
-                    if (board.whatsAtPos(adjPos) == opponent) {
-                        return true;
+    public static void runBatch(InputStream in, boolean perGame, PrintWriter out) throws IOException {
+        MoveReader reader = new MoveReader(in);
+        GameReplay replay = new GameReplay(new OthelloBoard(true));
+
+        long games = 0, moves = 0, xWins = 0, oWins = 0, draws = 0, rejected = 0;
+        int token = reader.next();
+
+        while (token != MoveReader.END_OF_INPUT) {
+            long gameStart = System.nanoTime();
+            games++;
+
+            if (!replay.replay(reader, token)) {
+                rejected++;
+                if (perGame) {
+                    out.print("game " + games + ": rejected move " + replay.getTokenIndex()
+                            + " on line " + replay.getLineNumber());
+                    if (replay.getSquare() >= 0) {
+                        out.print(" (" + replay.getPlayer() + " " + MoveReader.toNotation(replay.getSquare()) + ")");
                     }
+                    out.println(": " + replay.getReason());
+                }
+            } else {
+                EngineMetrics.gameCompleted(System.nanoTime() - gameStart);
+                int[] score = replay.getBoard().getScore();
+                moves += replay.getMoves();
+                String winner;
+                if (score[0] > score[1]) {
+                    xWins++;
+                    winner = "X wins";
+                } else if (score[1] > score[0]) {
+                    oWins++;
+                    winner = "O wins";
+                } else {
+                    draws++;
+                    winner = "draw";
+                }
+                if (perGame) {
+                    out.println("game " + games + ": " + replay.getMoves() + " moves, X " + score[0]
+                            + " | O " + score[1] + ", " + winner);
                 }
             }
+
+            token = reader.next();
         }
 
-        return false;
+        out.println("Games: " + games + " | Moves: " + moves + " | X wins: " + xWins
+                + " | O wins: " + oWins + " | Draws: " + draws + " | Rejected: " + rejected);
+        out.flush();
     }
 
     /**
-     * Checks if the current player has any valid moves left on the board.
-     * This ensures that the game doesn't continue if the player cannot make a valid move.
-     * 
-     * @param board The current Othello game board.
-     * @param player The current player ('X' or 'O').
-     * @return true if the player has at least one valid move left; false otherwise.
+     * Prompts the player for a row and column until they enter a valid move.
+     *
+     * @param sc The scanner object to read input.
+     * @param gameBoard The current Othello game board.
+     * @param currentPlayer The player to move ('X' or 'O').
+     * @return the position the player chose.
      */
-    private static boolean hasAnyValidMoves(IOthelloBoard board, char player) {
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                BoardPosition pos = new BoardPosition(r, c);
-                if (board.isPositionValid(pos) && hasAdjacentOpponent(board, pos, player)) {
-                    return true;
-                }
+    public static BoardPosition readMove(Scanner sc, IOthelloBoard gameBoard, char currentPlayer) {
+        while (true) {
+            // Get valid row and column from user
+            System.out.print("Enter row (0–7): ");
+            int row = getValidInt(sc);
+
+            System.out.print("Enter column (0–7): ");
+            int col = getValidInt(sc);
+
+            if (!BoardPosition.isInBounds(row, col)) {
+                System.out.println("Position out of bounds. Try again.");
+                continue;
             }
+
+            BoardPosition move = new BoardPosition(row, col);
+
+            // Check if position is valid
+            if (!gameBoard.isPositionValid(move)) {
+                System.out.println("Position is invalid or already occupied. Try again.");
+                continue;
+            }
+
+            // Ensure the move flips at least one opponent token, the same rule used to detect passes
+            if (!gameBoard.isLegalMove(currentPlayer, move)) {
+                System.out.println("Invalid move. Must flip at least one opponent token. Try again.");
+                continue;
+            }
+
+            return move;
         }
-        return false;
+    }
+
+    /**
+     * Prompts the user for a valid integer input and ensures the input is an integer.
+     * If the input is not a valid integer, the user is asked to enter a valid integer.
+     * 
+     * @param sc The scanner object to read input.
+     * @return The valid integer input from the user.
+     */
+    private static int getValidInt(Scanner sc) {
+        while (!sc.hasNextInt()) {
+            System.out.print("Please enter a valid integer: ");
+            sc.next(); // Discard invalid input
+        }
+        return sc.nextInt();
     }
 }
@@ -0,0 +1,130 @@
+package cpsc2150.extendedOthello.models;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The `VectorMoveGenerator` class is the Vector API kernel of `BatchMoveGenerator`.
+ * Each lane of a `LongVector` holds the bitboard of a different position, and every
+ * direction is expanded with the same shift-and-mask fills used by `Bitboards.legalMoves`.
+ *
+ * This class needs the `jdk.incubator.vector` module at compile time and run time, so it is kept
+ * in its own source root and compiled against the core classes in a separate step. It is only
+ * loaded by name from `BatchMoveGenerator`, which falls back to scalar code without it.
+ */
+final class VectorMoveGenerator implements BatchMoveGenerator.Kernel {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    /** Int vectors with as many lanes as `SPECIES`, for storing disc counts. */
+    private static final VectorSpecies<Integer> INT_SPECIES = VectorSpecies.of(int.class,
+            VectorShape.forBitSize(Math.max(64, SPECIES.vectorBitSize() / 2)));
+
+    private static final long M1 = 0x5555555555555555L;
+    private static final long M2 = 0x3333333333333333L;
+    private static final long M4 = 0x0f0f0f0f0f0f0f0fL;
+    private static final long H01 = 0x0101010101010101L;
+
+    /**
+     * Constructs the kernel.
+     *
+     * @throws UnsupportedOperationException if the platform's vectors hold fewer than two positions.
+     */
+    VectorMoveGenerator() {
+        if (SPECIES.length() < 2 || INT_SPECIES.length() != SPECIES.length()) {
+            throw new UnsupportedOperationException("Vector shape too small for batching");
+        }
+    }
+
+    @Override
+    public void legalMoves(long[] player, long[] opponent, long[] moves, int count) {
+        int bound = SPECIES.loopBound(count);
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            LongVector p = LongVector.fromArray(SPECIES, player, i);
+            LongVector o = LongVector.fromArray(SPECIES, opponent, i);
+            LongVector empty = p.or(o).not();
+            LongVector result = LongVector.zero(SPECIES);
+
+            for (int dir = 0; dir < 8; dir++) {
+                LongVector run = shift(p, dir).and(o);
+                run = run.or(shift(run, dir).and(o));
+                run = run.or(shift(run, dir).and(o));
+                run = run.or(shift(run, dir).and(o));
+                run = run.or(shift(run, dir).and(o));
+                run = run.or(shift(run, dir).and(o));
+                result = result.or(shift(run, dir).and(empty));
+            }
+            result.intoArray(moves, i);
+        }
+        BatchMoveGenerator.ScalarKernel.legalMoves(player, opponent, moves, bound, count);
+    }
+
+    @Override
+    public void flips(long[] player, long[] opponent, int[] squares, long[] flips, int count) {
+        int bound = SPECIES.loopBound(count);
+
+        // Stage the move bits in the output array, with 0 for "no move" or an occupied square
+        for (int i = 0; i < bound; i++) {
+            int sq = squares[i];
+            flips[i] = (sq < 0) ? 0 : (1L << sq) & ~(player[i] | opponent[i]);
+        }
+
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            LongVector p = LongVector.fromArray(SPECIES, player, i);
+            LongVector o = LongVector.fromArray(SPECIES, opponent, i);
+            LongVector move = LongVector.fromArray(SPECIES, flips, i);
+            LongVector result = LongVector.zero(SPECIES);
+
+            for (int dir = 0; dir < 8; dir++) {
+                LongVector run = shift(move, dir).and(o);
+                run = run.or(shift(run, dir).and(o));
+                run = run.or(shift(run, dir).and(o));
+                run = run.or(shift(run, dir).and(o));
+                run = run.or(shift(run, dir).and(o));
+                run = run.or(shift(run, dir).and(o));
+                // Keep the run only in lanes where it is closed off by one of the player's discs
+                VectorMask<Long> closed = shift(run, dir).and(p).compare(VectorOperators.NE, 0);
+                result = result.lanewise(VectorOperators.OR, run, closed);
+            }
+            result.intoArray(flips, i);
+        }
+        BatchMoveGenerator.ScalarKernel.flips(player, opponent, squares, flips, bound, count);
+    }
+
+    @Override
+    public void discCounts(long[] player, long[] opponent, int[] playerCounts, int[] opponentCounts,
+                           int count) {
+        int bound = SPECIES.loopBound(count);
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            bitCount(LongVector.fromArray(SPECIES, player, i)).intoArray(playerCounts, i);
+            bitCount(LongVector.fromArray(SPECIES, opponent, i)).intoArray(opponentCounts, i);
+        }
+        BatchMoveGenerator.ScalarKernel.discCounts(player, opponent, playerCounts, opponentCounts, bound, count);
+    }
+
+    /**
+     * Lane-wise version of `Bitboards.shift`.
+     */
+    private static LongVector shift(LongVector bits, int dir) {
+        int s = Bitboards.SHIFTS[dir];
+        LongVector shifted = (s > 0)
+                ? bits.lanewise(VectorOperators.LSHL, s)
+                : bits.lanewise(VectorOperators.LSHR, -s);
+        return shifted.and(Bitboards.SHIFT_MASKS[dir]);
+    }
+
+    /**
+     * Counts the set bits of every lane with the usual SWAR steps, since JDK 17 has no lane-wise bit count.
+     */
+    private static IntVector bitCount(LongVector v) {
+        v = v.sub(v.lanewise(VectorOperators.LSHR, 1).and(M1));
+        v = v.and(M2).add(v.lanewise(VectorOperators.LSHR, 2).and(M2));
+        v = v.add(v.lanewise(VectorOperators.LSHR, 4)).and(M4);
+        v = v.mul(H01).lanewise(VectorOperators.LSHR, 56);
+        return (IntVector) v.convertShape(VectorOperators.L2I, INT_SPECIES, 0);
+    }
+}